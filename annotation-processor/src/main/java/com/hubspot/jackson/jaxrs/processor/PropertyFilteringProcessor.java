@@ -0,0 +1,297 @@
+package com.hubspot.jackson.jaxrs.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * For every type reachable from the return type of a {@code @PropertyFiltering} method, this
+ * generates a {@code PropertyFilteringAccessors} implementation calling its getters directly,
+ * and writes a GraalVM {@code reflect-config.json} registering those types (and the generated
+ * classes) for reflection.
+ */
+@SupportedAnnotationTypes(PropertyFilteringProcessor.PROPERTY_FILTERING)
+@SupportedOptions(PropertyFilteringProcessor.NATIVE_IMAGE_DIRECTORY_OPTION)
+public class PropertyFilteringProcessor extends AbstractProcessor {
+
+  static final String PROPERTY_FILTERING = "com.hubspot.jackson.jaxrs.PropertyFiltering";
+  static final String ACCESSORS_INTERFACE =
+    "com.hubspot.jackson.jaxrs.PropertyFilteringAccessors";
+  static final String ACCESSORS_SUFFIX = "_PropertyFilteringAccessors";
+  static final String NATIVE_IMAGE_DIRECTORY_OPTION = "propertyfiltering.nativeImageDirectory";
+  static final String DEFAULT_NATIVE_IMAGE_DIRECTORY =
+    "META-INF/native-image/com.hubspot.jackson/jackson-jaxrs-propertyfiltering-generated";
+
+  private final Map<String, TypeElement> reachableTypes = new LinkedHashMap<>();
+  private final Set<String> generatedAccessors = new LinkedHashSet<>();
+  private final Set<Element> sourceTypes = new HashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeReflectConfig();
+      return false;
+    }
+
+    sourceTypes.addAll(roundEnv.getRootElements());
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() == ElementKind.METHOD) {
+          collect(((ExecutableElement) element).getReturnType());
+        }
+      }
+    }
+
+    for (TypeElement type : new ArrayList<>(reachableTypes.values())) {
+      String binaryName = binaryName(type);
+      if (isGeneratable(type) && !generatedAccessors.contains(binaryName)) {
+        generateAccessors(type);
+        generatedAccessors.add(binaryName);
+      }
+    }
+
+    return false;
+  }
+
+  private void collect(TypeMirror type) {
+    if (type.getKind() == TypeKind.ARRAY) {
+      collect(((ArrayType) type).getComponentType());
+      return;
+    }
+
+    if (type.getKind() != TypeKind.DECLARED) {
+      return;
+    }
+
+    DeclaredType declaredType = (DeclaredType) type;
+    for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+      collect(typeArgument);
+    }
+
+    TypeElement element = (TypeElement) declaredType.asElement();
+    if (isPlatformType(element) || element.getKind() == ElementKind.ENUM) {
+      return;
+    }
+
+    if (reachableTypes.putIfAbsent(binaryName(element), element) != null) {
+      return;
+    }
+
+    collect(element.getSuperclass());
+    for (ExecutableElement getter : getters(element)) {
+      collect(getter.getReturnType());
+    }
+  }
+
+  private void generateAccessors(TypeElement type) {
+    String packageName = packageOf(type).getQualifiedName().toString();
+    String binaryName = binaryName(type);
+    String simpleName =
+      binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace(
+        '$',
+        '_'
+      ) +
+      ACCESSORS_SUFFIX;
+    String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    String beanType = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source
+      .append("@javax.annotation.processing.Generated(\"")
+      .append(PropertyFilteringProcessor.class.getName())
+      .append("\")\n")
+      .append("public final class ")
+      .append(simpleName)
+      .append(" implements ")
+      .append(ACCESSORS_INTERFACE)
+      .append(" {\n\n")
+      .append("  @Override\n")
+      .append("  public java.util.function.Function<Object, Object> forGetter(String methodName) {\n")
+      .append("    switch (methodName) {\n");
+    for (ExecutableElement getter : getters(type)) {
+      String name = getter.getSimpleName().toString();
+      source
+        .append("      case \"")
+        .append(name)
+        .append("\":\n")
+        .append("        return bean -> ((")
+        .append(beanType)
+        .append(") bean).")
+        .append(name)
+        .append("();\n");
+    }
+    source
+      .append("      default:\n")
+      .append("        return null;\n")
+      .append("    }\n")
+      .append("  }\n")
+      .append("}\n");
+
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+      try (Writer writer = file.openWriter()) {
+        writer.write(source.toString());
+      }
+    } catch (IOException e) {
+      processingEnv
+        .getMessager()
+        .printMessage(
+          Diagnostic.Kind.ERROR,
+          "Unable to write " + qualifiedName + ": " + e.getMessage(),
+          type
+        );
+    }
+  }
+
+  private void writeReflectConfig() {
+    if (reachableTypes.isEmpty()) {
+      return;
+    }
+
+    List<String> entries = new ArrayList<>();
+    for (String binaryName : reachableTypes.keySet()) {
+      entries.add(
+        "  {\n" +
+        "    \"name\": \"" +
+        binaryName +
+        "\",\n" +
+        "    \"allDeclaredConstructors\": true,\n" +
+        "    \"allPublicConstructors\": true,\n" +
+        "    \"allDeclaredMethods\": true,\n" +
+        "    \"allPublicMethods\": true,\n" +
+        "    \"allDeclaredFields\": true\n" +
+        "  }"
+      );
+    }
+    for (String binaryName : generatedAccessors) {
+      entries.add(
+        "  {\n" +
+        "    \"name\": \"" +
+        accessorsName(binaryName) +
+        "\",\n" +
+        "    \"allDeclaredConstructors\": true\n" +
+        "  }"
+      );
+    }
+
+    String directory = processingEnv
+      .getOptions()
+      .getOrDefault(NATIVE_IMAGE_DIRECTORY_OPTION, DEFAULT_NATIVE_IMAGE_DIRECTORY);
+    try {
+      FileObject file = processingEnv
+        .getFiler()
+        .createResource(StandardLocation.CLASS_OUTPUT, "", directory + "/reflect-config.json");
+      try (Writer writer = file.openWriter()) {
+        writer.write("[\n" + String.join(",\n", entries) + "\n]\n");
+      }
+    } catch (IOException e) {
+      processingEnv
+        .getMessager()
+        .printMessage(
+          Diagnostic.Kind.ERROR,
+          "Unable to write reflect-config.json: " + e.getMessage()
+        );
+    }
+  }
+
+  // only non-private types compiled here, the generated class has to be able to see them
+  private boolean isGeneratable(TypeElement type) {
+    Element element = type;
+    while (element.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+      if (element.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      element = element.getEnclosingElement();
+    }
+    return !element.getModifiers().contains(Modifier.PRIVATE) && sourceTypes.contains(element);
+  }
+
+  private List<ExecutableElement> getters(TypeElement type) {
+    List<ExecutableElement> getters = new ArrayList<>();
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (isGetter(method)) {
+        getters.add(method);
+      }
+    }
+    return getters;
+  }
+
+  private static boolean isGetter(ExecutableElement method) {
+    Set<Modifier> modifiers = method.getModifiers();
+    if (
+      !modifiers.contains(Modifier.PUBLIC) ||
+      modifiers.contains(Modifier.STATIC) ||
+      !method.getParameters().isEmpty() ||
+      !method.getTypeParameters().isEmpty() ||
+      method.getReturnType().getKind() == TypeKind.VOID
+    ) {
+      return false;
+    }
+
+    String name = method.getSimpleName().toString();
+    if (name.startsWith("get") && name.length() > 3) {
+      return true;
+    }
+    return (
+      name.startsWith("is") &&
+      name.length() > 2 &&
+      method.getReturnType().getKind() == TypeKind.BOOLEAN
+    );
+  }
+
+  private static boolean isPlatformType(TypeElement element) {
+    String name = element.getQualifiedName().toString();
+    return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.");
+  }
+
+  private String binaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  private PackageElement packageOf(TypeElement type) {
+    return processingEnv.getElementUtils().getPackageOf(type);
+  }
+
+  private static String accessorsName(String binaryName) {
+    int packageEnd = binaryName.lastIndexOf('.');
+    return (
+      binaryName.substring(0, packageEnd + 1) +
+      binaryName.substring(packageEnd + 1).replace('$', '_') +
+      ACCESSORS_SUFFIX
+    );
+  }
+}
@@ -0,0 +1,197 @@
+package com.hubspot.jackson.jaxrs.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hubspot.jackson.jaxrs.PropertyFilteringAccessors;
+import com.hubspot.jackson.jaxrs.PropertyFilteringSerializerModifier;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropertyFilteringProcessorTest {
+
+  private Path directory;
+
+  @Before
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("property-filtering-processor");
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void itGeneratesAccessorsForReachableTypes() throws Exception {
+    compile(
+      "test/Resource.java",
+      "package test;\n" +
+      "import com.hubspot.jackson.jaxrs.PropertyFiltering;\n" +
+      "import java.util.List;\n" +
+      "public class Resource {\n" +
+      "  @PropertyFiltering\n" +
+      "  public List<Outer> get() { return null; }\n" +
+      "}\n",
+      "test/Outer.java",
+      "package test;\n" +
+      "public class Outer {\n" +
+      "  public long getId() { return 5; }\n" +
+      "  public boolean isActive() { return true; }\n" +
+      "  public Inner getInner() { return new Inner(); }\n" +
+      "  public String describe() { return null; }\n" +
+      "  public static class Inner {\n" +
+      "    public String getName() { return \"inner\"; }\n" +
+      "  }\n" +
+      "}\n"
+    );
+
+    try (URLClassLoader loader = classLoader()) {
+      Class<?> outerClass = loader.loadClass("test.Outer");
+      Object outer = outerClass.getDeclaredConstructor().newInstance();
+      PropertyFilteringAccessors accessors = accessors(loader, outerClass);
+
+      assertThat(accessors.forGetter("getId").apply(outer)).isEqualTo(5L);
+      assertThat(accessors.forGetter("isActive").apply(outer)).isEqualTo(true);
+      assertThat(accessors.forGetter("describe")).isNull();
+
+      Object inner = accessors.forGetter("getInner").apply(outer);
+      Function<Object, Object> getName = accessors(loader, inner.getClass())
+        .forGetter("getName");
+      assertThat(getName.apply(inner)).isEqualTo("inner");
+    }
+  }
+
+  @Test
+  public void itUsesGeneratedAccessorsFromTheFirstWrite() throws Exception {
+    compile(
+      "test/Resource.java",
+      "package test;\n" +
+      "import com.hubspot.jackson.jaxrs.PropertyFiltering;\n" +
+      "public class Resource {\n" +
+      "  @PropertyFiltering\n" +
+      "  public Caller get() { return null; }\n" +
+      "}\n",
+      "test/Caller.java",
+      "package test;\n" +
+      "public class Caller {\n" +
+      "  public String getCaller() {\n" +
+      "    return new Throwable().getStackTrace()[1].getClassName();\n" +
+      "  }\n" +
+      "}\n"
+    );
+
+    try (URLClassLoader loader = classLoader()) {
+      Class<?> callerClass = loader.loadClass("test.Caller");
+      Object caller = callerClass.getDeclaredConstructor().newInstance();
+      ObjectMapper mapper = PropertyFilteringSerializerModifier.copyWithModifier(
+        new ObjectMapper()
+      );
+
+      assertThat(mapper.writeValueAsString(caller))
+        .isEqualTo(
+          "{\"caller\":\"" + PropertyFilteringAccessors.classNameFor(callerClass) + "\"}"
+        );
+    }
+  }
+
+  @Test
+  public void itWritesReflectionMetadata() throws Exception {
+    compile(
+      "test/Resource.java",
+      "package test;\n" +
+      "import com.hubspot.jackson.jaxrs.PropertyFiltering;\n" +
+      "public class Resource {\n" +
+      "  @PropertyFiltering\n" +
+      "  public Bean[] get() { return null; }\n" +
+      "  public static class Bean {\n" +
+      "    public String getName() { return null; }\n" +
+      "  }\n" +
+      "}\n"
+    );
+
+    String config = new String(
+      Files.readAllBytes(
+        directory.resolve(
+          PropertyFilteringProcessor.DEFAULT_NATIVE_IMAGE_DIRECTORY + "/reflect-config.json"
+        )
+      ),
+      StandardCharsets.UTF_8
+    );
+
+    assertThat(config)
+      .contains("\"name\": \"test.Resource$Bean\"")
+      .contains("\"name\": \"test.Resource_Bean_PropertyFilteringAccessors\"")
+      .doesNotContain("java.lang.String");
+  }
+
+  private void compile(String... pathsAndSources) throws IOException {
+    List<File> files = new ArrayList<>();
+    for (int i = 0; i < pathsAndSources.length; i += 2) {
+      Path source = directory.resolve(pathsAndSources[i]);
+      Files.createDirectories(source.getParent());
+      Files.write(source, pathsAndSources[i + 1].getBytes(StandardCharsets.UTF_8));
+      files.add(source.toFile());
+    }
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (
+      StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)
+    ) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+      JavaCompiler.CompilationTask task = compiler.getTask(
+        null,
+        fileManager,
+        null,
+        Arrays.asList(
+          "-d",
+          directory.toString(),
+          "-s",
+          directory.toString(),
+          "-classpath",
+          System.getProperty("java.class.path")
+        ),
+        null,
+        units
+      );
+      task.setProcessors(Collections.singletonList(new PropertyFilteringProcessor()));
+
+      assertThat(task.call()).isTrue();
+    }
+  }
+
+  private URLClassLoader classLoader() throws IOException {
+    return new URLClassLoader(
+      new URL[] { directory.toUri().toURL() },
+      getClass().getClassLoader()
+    );
+  }
+
+  private static PropertyFilteringAccessors accessors(ClassLoader loader, Class<?> type)
+    throws Exception {
+    return (PropertyFilteringAccessors) loader
+      .loadClass(PropertyFilteringAccessors.classNameFor(type))
+      .getDeclaredConstructor()
+      .newInstance();
+  }
+}
@@ -0,0 +1,401 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Getter-backed beans with the same fields as {@link Payloads#object}, one class per benchmarked
+ * width.
+ */
+public final class Beans {
+
+  private Beans() {
+    throw new AssertionError();
+  }
+
+  public static final class Width10 {
+    private final long f0;
+    private final String f1;
+    private final long f2;
+    private final String f3;
+    private final long f4;
+    private final String f5;
+    private final long f6;
+    private final String f7;
+    private final long f8;
+    private final String f9;
+    private final Width10 nested;
+
+    Width10(int depth, int seed) {
+      f0 = seed * 31L + 0;
+      f1 = "value " + seed + 1;
+      f2 = seed * 31L + 2;
+      f3 = "value " + seed + 3;
+      f4 = seed * 31L + 4;
+      f5 = "value " + seed + 5;
+      f6 = seed * 31L + 6;
+      f7 = "value " + seed + 7;
+      f8 = seed * 31L + 8;
+      f9 = "value " + seed + 9;
+      nested = depth > 1 ? new Width10(depth - 1, seed) : null;
+    }
+
+    public long getF0() {
+      return f0;
+    }
+
+    public String getF1() {
+      return f1;
+    }
+
+    public long getF2() {
+      return f2;
+    }
+
+    public String getF3() {
+      return f3;
+    }
+
+    public long getF4() {
+      return f4;
+    }
+
+    public String getF5() {
+      return f5;
+    }
+
+    public long getF6() {
+      return f6;
+    }
+
+    public String getF7() {
+      return f7;
+    }
+
+    public long getF8() {
+      return f8;
+    }
+
+    public String getF9() {
+      return f9;
+    }
+
+    @JsonInclude(Include.NON_NULL)
+    public Width10 getNested() {
+      return nested;
+    }
+  }
+
+  public static final class Width50 {
+    private final long f0;
+    private final String f1;
+    private final long f2;
+    private final String f3;
+    private final long f4;
+    private final String f5;
+    private final long f6;
+    private final String f7;
+    private final long f8;
+    private final String f9;
+    private final long f10;
+    private final String f11;
+    private final long f12;
+    private final String f13;
+    private final long f14;
+    private final String f15;
+    private final long f16;
+    private final String f17;
+    private final long f18;
+    private final String f19;
+    private final long f20;
+    private final String f21;
+    private final long f22;
+    private final String f23;
+    private final long f24;
+    private final String f25;
+    private final long f26;
+    private final String f27;
+    private final long f28;
+    private final String f29;
+    private final long f30;
+    private final String f31;
+    private final long f32;
+    private final String f33;
+    private final long f34;
+    private final String f35;
+    private final long f36;
+    private final String f37;
+    private final long f38;
+    private final String f39;
+    private final long f40;
+    private final String f41;
+    private final long f42;
+    private final String f43;
+    private final long f44;
+    private final String f45;
+    private final long f46;
+    private final String f47;
+    private final long f48;
+    private final String f49;
+    private final Width50 nested;
+
+    Width50(int depth, int seed) {
+      f0 = seed * 31L + 0;
+      f1 = "value " + seed + 1;
+      f2 = seed * 31L + 2;
+      f3 = "value " + seed + 3;
+      f4 = seed * 31L + 4;
+      f5 = "value " + seed + 5;
+      f6 = seed * 31L + 6;
+      f7 = "value " + seed + 7;
+      f8 = seed * 31L + 8;
+      f9 = "value " + seed + 9;
+      f10 = seed * 31L + 10;
+      f11 = "value " + seed + 11;
+      f12 = seed * 31L + 12;
+      f13 = "value " + seed + 13;
+      f14 = seed * 31L + 14;
+      f15 = "value " + seed + 15;
+      f16 = seed * 31L + 16;
+      f17 = "value " + seed + 17;
+      f18 = seed * 31L + 18;
+      f19 = "value " + seed + 19;
+      f20 = seed * 31L + 20;
+      f21 = "value " + seed + 21;
+      f22 = seed * 31L + 22;
+      f23 = "value " + seed + 23;
+      f24 = seed * 31L + 24;
+      f25 = "value " + seed + 25;
+      f26 = seed * 31L + 26;
+      f27 = "value " + seed + 27;
+      f28 = seed * 31L + 28;
+      f29 = "value " + seed + 29;
+      f30 = seed * 31L + 30;
+      f31 = "value " + seed + 31;
+      f32 = seed * 31L + 32;
+      f33 = "value " + seed + 33;
+      f34 = seed * 31L + 34;
+      f35 = "value " + seed + 35;
+      f36 = seed * 31L + 36;
+      f37 = "value " + seed + 37;
+      f38 = seed * 31L + 38;
+      f39 = "value " + seed + 39;
+      f40 = seed * 31L + 40;
+      f41 = "value " + seed + 41;
+      f42 = seed * 31L + 42;
+      f43 = "value " + seed + 43;
+      f44 = seed * 31L + 44;
+      f45 = "value " + seed + 45;
+      f46 = seed * 31L + 46;
+      f47 = "value " + seed + 47;
+      f48 = seed * 31L + 48;
+      f49 = "value " + seed + 49;
+      nested = depth > 1 ? new Width50(depth - 1, seed) : null;
+    }
+
+    public long getF0() {
+      return f0;
+    }
+
+    public String getF1() {
+      return f1;
+    }
+
+    public long getF2() {
+      return f2;
+    }
+
+    public String getF3() {
+      return f3;
+    }
+
+    public long getF4() {
+      return f4;
+    }
+
+    public String getF5() {
+      return f5;
+    }
+
+    public long getF6() {
+      return f6;
+    }
+
+    public String getF7() {
+      return f7;
+    }
+
+    public long getF8() {
+      return f8;
+    }
+
+    public String getF9() {
+      return f9;
+    }
+
+    public long getF10() {
+      return f10;
+    }
+
+    public String getF11() {
+      return f11;
+    }
+
+    public long getF12() {
+      return f12;
+    }
+
+    public String getF13() {
+      return f13;
+    }
+
+    public long getF14() {
+      return f14;
+    }
+
+    public String getF15() {
+      return f15;
+    }
+
+    public long getF16() {
+      return f16;
+    }
+
+    public String getF17() {
+      return f17;
+    }
+
+    public long getF18() {
+      return f18;
+    }
+
+    public String getF19() {
+      return f19;
+    }
+
+    public long getF20() {
+      return f20;
+    }
+
+    public String getF21() {
+      return f21;
+    }
+
+    public long getF22() {
+      return f22;
+    }
+
+    public String getF23() {
+      return f23;
+    }
+
+    public long getF24() {
+      return f24;
+    }
+
+    public String getF25() {
+      return f25;
+    }
+
+    public long getF26() {
+      return f26;
+    }
+
+    public String getF27() {
+      return f27;
+    }
+
+    public long getF28() {
+      return f28;
+    }
+
+    public String getF29() {
+      return f29;
+    }
+
+    public long getF30() {
+      return f30;
+    }
+
+    public String getF31() {
+      return f31;
+    }
+
+    public long getF32() {
+      return f32;
+    }
+
+    public String getF33() {
+      return f33;
+    }
+
+    public long getF34() {
+      return f34;
+    }
+
+    public String getF35() {
+      return f35;
+    }
+
+    public long getF36() {
+      return f36;
+    }
+
+    public String getF37() {
+      return f37;
+    }
+
+    public long getF38() {
+      return f38;
+    }
+
+    public String getF39() {
+      return f39;
+    }
+
+    public long getF40() {
+      return f40;
+    }
+
+    public String getF41() {
+      return f41;
+    }
+
+    public long getF42() {
+      return f42;
+    }
+
+    public String getF43() {
+      return f43;
+    }
+
+    public long getF44() {
+      return f44;
+    }
+
+    public String getF45() {
+      return f45;
+    }
+
+    public long getF46() {
+      return f46;
+    }
+
+    public String getF47() {
+      return f47;
+    }
+
+    public long getF48() {
+      return f48;
+    }
+
+    public String getF49() {
+      return f49;
+    }
+
+    @JsonInclude(Include.NON_NULL)
+    public Width50 getNested() {
+      return nested;
+    }
+  }
+}
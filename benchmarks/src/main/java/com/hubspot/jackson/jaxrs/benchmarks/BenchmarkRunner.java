@@ -0,0 +1,29 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the usual JMH command line, always with the GC profiler so
+ * allocation per operation ({@code gc.alloc.rate.norm}) is reported alongside timings.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {
+    throw new AssertionError();
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    new Runner(
+      new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .build()
+    )
+      .run();
+  }
+}
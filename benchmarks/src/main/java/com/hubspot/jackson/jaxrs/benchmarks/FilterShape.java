@@ -0,0 +1,71 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * How selective the requested properties are, for payloads built by {@link Payloads}.
+ */
+public enum FilterShape {
+  /** No properties at all, so filtering is skipped. */
+  NONE {
+    @Override
+    public List<String> properties(int width, int depth) {
+      return Collections.emptyList();
+    }
+  },
+  /** One top-level field. */
+  SINGLE {
+    @Override
+    public List<String> properties(int width, int depth) {
+      return Collections.singletonList(Payloads.fieldName(0));
+    }
+  },
+  /** Half the fields at every level. */
+  HALF {
+    @Override
+    public List<String> properties(int width, int depth) {
+      List<String> properties = new ArrayList<>();
+      String prefix = "";
+      for (int level = 0; level < depth; level++) {
+        for (int i = 0; i < width / 2; i++) {
+          properties.add(prefix + Payloads.fieldName(i));
+        }
+        prefix += Payloads.NESTED + ".";
+      }
+      return properties;
+    }
+  },
+  /** One field at the deepest level. */
+  DEEP {
+    @Override
+    public List<String> properties(int width, int depth) {
+      StringBuilder property = new StringBuilder();
+      for (int level = 1; level < depth; level++) {
+        property.append(Payloads.NESTED).append('.');
+      }
+      return Collections.singletonList(property.append(Payloads.fieldName(0)).toString());
+    }
+  },
+  /** Every top-level field, with nested objects narrowed to one field by a wildcard. */
+  WILDCARD {
+    @Override
+    public List<String> properties(int width, int depth) {
+      return Collections.singletonList("*." + Payloads.fieldName(0));
+    }
+  },
+  /** Everything except a couple of fields. */
+  EXCLUDE {
+    @Override
+    public List<String> properties(int width, int depth) {
+      return Arrays.asList(
+        "!" + Payloads.fieldName(1),
+        "!" + Payloads.NESTED + "." + Payloads.fieldName(2)
+      );
+    }
+  };
+
+  public abstract List<String> properties(int width, int depth);
+}
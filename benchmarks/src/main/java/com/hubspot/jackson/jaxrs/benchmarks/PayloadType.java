@@ -0,0 +1,25 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import java.util.List;
+
+/**
+ * What the objects built by {@link Payloads} are: maps take the map filtering path, beans the
+ * bean serializer one, where serializer-level filtering prunes properties and specializes their
+ * accessors.
+ */
+public enum PayloadType {
+  MAP {
+    @Override
+    public List<?> array(int width, int depth, int length) {
+      return Payloads.array(width, depth, length);
+    }
+  },
+  BEAN {
+    @Override
+    public List<?> array(int width, int depth, int length) {
+      return Payloads.beans(width, depth, length);
+    }
+  };
+
+  public abstract List<?> array(int width, int depth, int length);
+}
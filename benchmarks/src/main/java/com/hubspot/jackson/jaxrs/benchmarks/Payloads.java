@@ -0,0 +1,125 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+
+/**
+ * Synthetic payloads: every object has {@code width} scalar fields named {@code f0, f1, ...}
+ * and, above the deepest level, a {@link #NESTED} object of the same shape.
+ */
+public final class Payloads {
+
+  public static final String NESTED = "nested";
+
+  private Payloads() {
+    throw new AssertionError();
+  }
+
+  public static String fieldName(int index) {
+    return "f" + index;
+  }
+
+  public static List<Map<String, Object>> array(int width, int depth, int length) {
+    List<Map<String, Object>> array = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      array.add(object(width, depth, i));
+    }
+    return array;
+  }
+
+  /**
+   * Like {@link #array} but of {@link Beans}, which only exist for a {@code width} of 10 or 50.
+   */
+  public static List<Object> beans(int width, int depth, int length) {
+    List<Object> array = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      array.add(bean(width, depth, i));
+    }
+    return array;
+  }
+
+  private static Object bean(int width, int depth, int seed) {
+    switch (width) {
+      case 10:
+        return new Beans.Width10(depth, seed);
+      case 50:
+        return new Beans.Width50(depth, seed);
+      default:
+        throw new IllegalArgumentException("No bean with " + width + " fields");
+    }
+  }
+
+  public static Map<String, Object> object(int width, int depth, int seed) {
+    Map<String, Object> object = new LinkedHashMap<>();
+    for (int i = 0; i < width; i++) {
+      object.put(fieldName(i), i % 2 == 0 ? (Object) (seed * 31L + i) : "value " + seed + i);
+    }
+    if (depth > 1) {
+      object.put(NESTED, object(width, depth - 1, seed));
+    }
+    return object;
+  }
+
+  /**
+   * Every dotted path to a field of a payload object, e.g. {@code f0} and {@code nested.f0}.
+   */
+  public static List<String> paths(int width, int depth) {
+    List<String> paths = new ArrayList<>();
+    String prefix = "";
+    for (int level = 0; level < depth; level++) {
+      for (int i = 0; i < width; i++) {
+        paths.add(prefix + fieldName(i));
+      }
+      prefix += NESTED + ".";
+    }
+    return paths;
+  }
+
+  /**
+   * {@link UriInfo} whose only query parameter is {@code property}, once per property.
+   */
+  public static UriInfo uriInfo(List<String> properties) {
+    MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+    for (String property : properties) {
+      queryParameters.add("property", property);
+    }
+
+    return (UriInfo) Proxy.newProxyInstance(
+      UriInfo.class.getClassLoader(),
+      new Class<?>[] { UriInfo.class },
+      (proxy, method, args) -> {
+        if (method.getName().equals("getQueryParameters")) {
+          return queryParameters;
+        }
+        throw new UnsupportedOperationException(method.getName());
+      }
+    );
+  }
+
+  /**
+   * Sets a {@code @Context} field the way a JAX-RS runtime would.
+   */
+  public static void inject(Object target, String fieldName, Object value) {
+    for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+      try {
+        Field field = type.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+        return;
+      } catch (NoSuchFieldException e) {
+        // declared further up
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Unable to inject " + fieldName, e);
+      }
+    }
+
+    throw new IllegalStateException("No field " + fieldName + " on " + target.getClass());
+  }
+}
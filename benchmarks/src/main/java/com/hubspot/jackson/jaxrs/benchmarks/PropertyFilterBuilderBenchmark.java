@@ -0,0 +1,57 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.hubspot.jackson.jaxrs.PropertyFilter;
+import com.hubspot.jackson.jaxrs.PropertyFilterBuilder;
+import com.hubspot.jackson.jaxrs.PropertyFilterCache;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.UriInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing the query parameters into a {@link PropertyFilter}, with and without the filter cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyFilterBuilderBenchmark {
+
+  @Param({ "10", "50" })
+  public int width;
+
+  @Param({ "1", "3" })
+  public int depth;
+
+  @Param({ "SINGLE", "HALF", "DEEP", "WILDCARD", "EXCLUDE" })
+  public FilterShape shape;
+
+  @Param({ "false", "true" })
+  public boolean cached;
+
+  private UriInfo uriInfo;
+  private PropertyFilterCache cache;
+
+  @Setup
+  public void setup() {
+    uriInfo = Payloads.uriInfo(shape.properties(width, depth));
+    cache = cached ? new PropertyFilterCache(1000, new MetricRegistry()) : null;
+  }
+
+  @Benchmark
+  public PropertyFilter build() {
+    return PropertyFilterBuilder.newBuilder(uriInfo).usingCache(cache).build();
+  }
+}
@@ -0,0 +1,83 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.hubspot.jackson.jaxrs.PropertyFilter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Checking every field of one payload object against a filter, both the way the filtering
+ * generator does ({@link TokenFilter#includeProperty}, level by level) and by dotted path
+ * ({@link PropertyFilter#matches} and {@link PropertyFilter#includes}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyFilterMatchBenchmark {
+
+  @Param({ "10", "50" })
+  public int width;
+
+  @Param({ "1", "3" })
+  public int depth;
+
+  @Param({ "SINGLE", "HALF", "DEEP", "WILDCARD", "EXCLUDE" })
+  public FilterShape shape;
+
+  private PropertyFilter filter;
+  private String[] fieldNames;
+  private String[] paths;
+
+  @Setup
+  public void setup() {
+    filter = new PropertyFilter(shape.properties(width, depth));
+
+    fieldNames = new String[width];
+    for (int i = 0; i < width; i++) {
+      fieldNames[i] = Payloads.fieldName(i);
+    }
+
+    List<String> allPaths = Payloads.paths(width, depth);
+    paths = allPaths.toArray(new String[0]);
+  }
+
+  @Benchmark
+  public void includeProperty(Blackhole blackhole) {
+    TokenFilter level = filter;
+    for (int i = 0; i < depth && level != null; i++) {
+      for (String fieldName : fieldNames) {
+        blackhole.consume(level.includeProperty(fieldName));
+      }
+      level = level == TokenFilter.INCLUDE_ALL ? null : level.includeProperty(Payloads.NESTED);
+    }
+  }
+
+  @Benchmark
+  public void matches(Blackhole blackhole) {
+    for (String path : paths) {
+      blackhole.consume(filter.matches(path));
+    }
+  }
+
+  @Benchmark
+  public void includes(Blackhole blackhole) {
+    for (String path : paths) {
+      blackhole.consume(filter.includes(path));
+    }
+  }
+}
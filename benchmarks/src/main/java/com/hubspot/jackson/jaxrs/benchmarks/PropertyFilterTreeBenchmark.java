@@ -0,0 +1,82 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hubspot.jackson.jaxrs.PropertyFilter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filtering a {@link JsonNode} tree in place. Each invocation filters a fresh copy of the tree,
+ * so {@link #copy()} is the baseline to subtract. {@link #retainFilter()} is the previous
+ * retain/remove/walk implementation, {@link #parallelFilter()} splits the top-level array
+ * across the common fork-join pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyFilterTreeBenchmark {
+
+  @Param({ "10", "50" })
+  public int width;
+
+  @Param({ "1", "3" })
+  public int depth;
+
+  @Param({ "1", "100", "1000" })
+  public int arrayLength;
+
+  @Param({ "SINGLE", "HALF", "DEEP", "WILDCARD", "EXCLUDE" })
+  public FilterShape shape;
+
+  private PropertyFilter filter;
+  private RetainTreeFilter retainFilter;
+  private JsonNode tree;
+
+  @Setup
+  public void setup() {
+    filter = new PropertyFilter(shape.properties(width, depth));
+    retainFilter = new RetainTreeFilter(shape.properties(width, depth));
+    tree = new ObjectMapper().valueToTree(Payloads.array(width, depth, arrayLength));
+  }
+
+  @Benchmark
+  public JsonNode copy() {
+    return tree.deepCopy();
+  }
+
+  @Benchmark
+  public JsonNode filter() {
+    JsonNode copy = tree.deepCopy();
+    filter.filter(copy);
+    return copy;
+  }
+
+  @Benchmark
+  public JsonNode retainFilter() {
+    JsonNode copy = tree.deepCopy();
+    retainFilter.filter(copy);
+    return copy;
+  }
+
+  @Benchmark
+  public JsonNode parallelFilter() {
+    JsonNode copy = tree.deepCopy();
+    filter.filter(copy, ForkJoinPool.commonPool(), 2);
+    return copy;
+  }
+}
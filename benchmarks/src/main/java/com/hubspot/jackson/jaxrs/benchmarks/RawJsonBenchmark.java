@@ -0,0 +1,97 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hubspot.jackson.jaxrs.PropertyFiltering;
+import com.hubspot.jackson.jaxrs.PropertyFilteringMessageBodyWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filtering an already serialized {@code byte[]} entity, by tokenizing it or by scanning its
+ * bytes, against copying it unfiltered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RawJsonBenchmark {
+
+  @Param({ "10", "50" })
+  public int width;
+
+  @Param({ "1", "3" })
+  public int depth;
+
+  @Param({ "100", "1000" })
+  public int arrayLength;
+
+  @Param({ "NONE", "SINGLE", "HALF", "DEEP", "EXCLUDE" })
+  public FilterShape shape;
+
+  @Param({ "false", "true" })
+  public boolean scanning;
+
+  private byte[] json;
+  private Annotation[] annotations;
+  private MultivaluedMap<String, Object> headers;
+  private PropertyFilteringMessageBodyWriter writer;
+  private ByteArrayOutputStream output;
+
+  @Setup
+  public void setup() throws JsonProcessingException, NoSuchMethodException {
+    json =
+      new ObjectMapper().writeValueAsBytes(Payloads.array(width, depth, arrayLength));
+    annotations = RawJsonBenchmark.class.getDeclaredMethod("endpoint").getAnnotations();
+    headers = new MultivaluedHashMap<>();
+
+    boolean scanning = this.scanning;
+    writer =
+      new PropertyFilteringMessageBodyWriter() {
+        @Override
+        protected boolean rawJsonScanningEnabled() {
+          return scanning;
+        }
+      };
+    Payloads.inject(writer, "uriInfo", Payloads.uriInfo(shape.properties(width, depth)));
+    output = new ByteArrayOutputStream(json.length);
+  }
+
+  @Benchmark
+  public int writeTo() throws IOException {
+    output.reset();
+    writer.writeTo(
+      json,
+      byte[].class,
+      byte[].class,
+      annotations,
+      MediaType.APPLICATION_JSON_TYPE,
+      headers,
+      output
+    );
+    return output.size();
+  }
+
+  @PropertyFiltering
+  private static byte[] endpoint() {
+    return null;
+  }
+}
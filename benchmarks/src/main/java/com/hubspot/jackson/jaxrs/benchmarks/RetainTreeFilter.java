@@ -0,0 +1,109 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * The tree filtering {@code PropertyFilter} used to do, kept as a baseline: {@code retain} the
+ * included names, {@code remove} the excluded ones, then walk the remaining fields looking up
+ * their nested filters.
+ */
+public final class RetainTreeFilter {
+
+  private final Set<String> includedProperties = new HashSet<>();
+  private final Set<String> excludedProperties = new HashSet<>();
+  private final Map<String, RetainTreeFilter> nestedProperties = new HashMap<>();
+
+  public RetainTreeFilter(Collection<String> properties) {
+    for (String property : properties) {
+      if (!property.isEmpty()) {
+        addProperty(property);
+      }
+    }
+
+    applyWildcardsToNamedProperties(this);
+  }
+
+  private RetainTreeFilter() {}
+
+  public void filter(JsonNode node) {
+    if (node.isObject()) {
+      filter((ObjectNode) node);
+    } else if (node.isArray()) {
+      for (JsonNode element : node) {
+        filter(element);
+      }
+    }
+  }
+
+  private void filter(ObjectNode object) {
+    if (!includedProperties.isEmpty() && !includedProperties.contains("*")) {
+      object.retain(includedProperties);
+    }
+
+    if (excludedProperties.contains("*")) {
+      object.removeAll();
+    } else {
+      object.remove(excludedProperties);
+    }
+
+    Iterator<Entry<String, JsonNode>> fields = object.fields();
+    while (fields.hasNext()) {
+      Entry<String, JsonNode> field = fields.next();
+
+      if (nestedProperties.containsKey(field.getKey())) {
+        nestedProperties.get(field.getKey()).filter(field.getValue());
+      } else if (nestedProperties.containsKey("*")) {
+        nestedProperties.get("*").filter(field.getValue());
+      }
+    }
+  }
+
+  private void addProperty(String property) {
+    boolean excluded = property.startsWith("!");
+    if (excluded) {
+      property = property.substring(1);
+    }
+
+    int dot = property.indexOf('.');
+    if (dot < 0) {
+      (excluded ? excludedProperties : includedProperties).add(property);
+      return;
+    }
+
+    String prefix = property.substring(0, dot);
+    String suffix = property.substring(dot + 1);
+    RetainTreeFilter nested = nestedProperties.computeIfAbsent(
+      prefix,
+      p -> new RetainTreeFilter()
+    );
+    if (excluded) {
+      nested.addProperty("!" + suffix);
+    } else {
+      nested.addProperty(suffix);
+      includedProperties.add(prefix);
+    }
+  }
+
+  private static void applyWildcardsToNamedProperties(RetainTreeFilter root) {
+    RetainTreeFilter wildcard = root.nestedProperties.get("*");
+    if (wildcard != null) {
+      for (RetainTreeFilter sibling : root.nestedProperties.values()) {
+        sibling.includedProperties.addAll(wildcard.includedProperties);
+        sibling.excludedProperties.addAll(wildcard.excludedProperties);
+      }
+    } else {
+      for (RetainTreeFilter child : root.nestedProperties.values()) {
+        applyWildcardsToNamedProperties(child);
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.hubspot.jackson.jaxrs.benchmarks;
+
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import com.hubspot.jackson.jaxrs.PropertyFiltering;
+import com.hubspot.jackson.jaxrs.PropertyFilteringMessageBodyWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A whole filtered response through {@link PropertyFilteringMessageBodyWriter#writeTo}, against
+ * the same payload written unfiltered by {@link JacksonJsonProvider}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WriteToBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Unfiltered {
+
+    @Param({ "10", "50" })
+    public int width;
+
+    @Param({ "1", "3" })
+    public int depth;
+
+    @Param({ "1", "100", "1000" })
+    public int arrayLength;
+
+    @Param({ "MAP", "BEAN" })
+    public PayloadType payloadType;
+
+    List<?> payload;
+    Annotation[] annotations;
+    MultivaluedMap<String, Object> headers;
+    JacksonJsonProvider provider;
+    ByteArrayOutputStream output;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+      payload = payloadType.array(width, depth, arrayLength);
+      annotations = WriteToBenchmark.class.getDeclaredMethod("endpoint").getAnnotations();
+      headers = new MultivaluedHashMap<>();
+      provider = new JacksonJsonProvider();
+      output = new ByteArrayOutputStream();
+    }
+  }
+
+  // only the filtered benchmark varies with the filter
+  @State(Scope.Benchmark)
+  public static class Filtered extends Unfiltered {
+
+    @Param({ "NONE", "SINGLE", "HALF", "DEEP", "WILDCARD", "EXCLUDE" })
+    public FilterShape shape;
+
+    @Param({ "false", "true" })
+    public boolean serializerFiltering;
+
+    PropertyFilteringMessageBodyWriter writer;
+
+    @Override
+    @Setup
+    public void setup() throws NoSuchMethodException {
+      super.setup();
+      boolean serializerFiltering = this.serializerFiltering;
+      writer =
+        new PropertyFilteringMessageBodyWriter() {
+          @Override
+          protected boolean serializerFilteringEnabled() {
+            return serializerFiltering;
+          }
+        };
+      Payloads.inject(writer, "uriInfo", Payloads.uriInfo(shape.properties(width, depth)));
+    }
+  }
+
+  @Benchmark
+  public int writeTo(Filtered state) throws IOException {
+    state.output.reset();
+    state.writer.writeTo(
+      state.payload,
+      List.class,
+      List.class,
+      state.annotations,
+      MediaType.APPLICATION_JSON_TYPE,
+      state.headers,
+      state.output
+    );
+    return state.output.size();
+  }
+
+  @Benchmark
+  public int unfiltered(Unfiltered state) throws IOException {
+    state.output.reset();
+    state.provider.writeTo(
+      state.payload,
+      List.class,
+      List.class,
+      state.annotations,
+      MediaType.APPLICATION_JSON_TYPE,
+      state.headers,
+      state.output
+    );
+    return state.output.size();
+  }
+
+  @PropertyFiltering
+  private static List<?> endpoint() {
+    return null;
+  }
+}
@@ -0,0 +1,171 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.std.AsArraySerializerBase;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes a large top-level collection by serializing chunks of its elements concurrently and
+ * copying them to the output in order. Every chunk is written as a JSON array of its own
+ * through a {@link PropertyFilteringGenerator} with the shared, immutable {@link PropertyFilter}
+ * (array elements are all filtered alike), and its elements are then spliced into the
+ * response array. At most {@code maxChunksInFlight} chunks are being serialized or waiting to
+ * be copied at any time, and their buffers are reused for later chunks, which bounds the memory
+ * held per response.
+ */
+final class ChunkedCollectionWriter {
+
+  private static final int INITIAL_BUFFER_SIZE = 8192;
+
+  private final ObjectWriter writer;
+  private final PropertyFilter filter;
+  private final Executor executor;
+  private final int chunkSize;
+  private final int maxChunksInFlight;
+
+  ChunkedCollectionWriter(
+    ObjectWriter writer,
+    PropertyFilter filter,
+    Executor executor,
+    int chunkSize,
+    int maxChunksInFlight
+  ) {
+    this.writer = writer;
+    this.filter = filter;
+    this.executor = executor;
+    this.chunkSize = Math.max(chunkSize, 1);
+    this.maxChunksInFlight = Math.max(maxChunksInFlight, 1);
+  }
+
+  /**
+   * Whether splicing chunks gives the same output as writing {@code value} in one go: it has to
+   * be a collection serialized as a plain JSON array, without pretty printing or root wrapping.
+   */
+  static boolean supports(ObjectMapper mapper, ObjectWriter writer, Object value) {
+    if (
+      !(value instanceof Collection) ||
+      writer.isEnabled(SerializationFeature.INDENT_OUTPUT) ||
+      writer.isEnabled(SerializationFeature.WRAP_ROOT_VALUE)
+    ) {
+      return false;
+    }
+
+    try {
+      JsonSerializer<Object> serializer = mapper
+        .getSerializerProviderInstance()
+        .findValueSerializer(value.getClass());
+      return serializer instanceof AsArraySerializerBase;
+    } catch (JsonMappingException e) {
+      return false;
+    }
+  }
+
+  void write(Collection<?> collection, OutputStream outputStream) throws IOException {
+    ArrayDeque<CompletableFuture<ChunkBuffer>> inFlight = new ArrayDeque<>();
+    ArrayDeque<ChunkBuffer> freeBuffers = new ArrayDeque<>();
+    Iterator<?> elements = collection.iterator();
+    boolean first = true;
+
+    outputStream.write('[');
+    try {
+      while (elements.hasNext() || !inFlight.isEmpty()) {
+        while (elements.hasNext() && inFlight.size() < maxChunksInFlight) {
+          Object[] chunk = nextChunk(elements);
+          ChunkBuffer buffer = freeBuffers.isEmpty() ? new ChunkBuffer() : freeBuffers.pop();
+          inFlight.add(CompletableFuture.supplyAsync(() -> serialize(chunk, buffer), executor));
+        }
+
+        ChunkBuffer buffer = join(inFlight.poll());
+        if (buffer.hasElements()) {
+          if (!first) {
+            outputStream.write(',');
+          }
+          first = false;
+          buffer.writeElementsTo(outputStream);
+        }
+
+        buffer.reset();
+        freeBuffers.push(buffer);
+      }
+    } finally {
+      for (CompletableFuture<ChunkBuffer> future : inFlight) {
+        future.cancel(false);
+      }
+    }
+    outputStream.write(']');
+  }
+
+  private Object[] nextChunk(Iterator<?> elements) {
+    Object[] chunk = new Object[chunkSize];
+    int size = 0;
+    while (size < chunkSize && elements.hasNext()) {
+      chunk[size++] = elements.next();
+    }
+
+    return size == chunkSize ? chunk : Arrays.copyOf(chunk, size);
+  }
+
+  private ChunkBuffer serialize(Object[] chunk, ChunkBuffer buffer) {
+    try (
+      JsonGenerator generator = new PropertyFilteringGenerator(
+        writer.getFactory().createGenerator(buffer),
+        filter
+      )
+    ) {
+      writer.writeValue(generator, Arrays.asList(chunk));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return buffer;
+  }
+
+  private static ChunkBuffer join(CompletableFuture<ChunkBuffer> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Holds one chunk serialized as {@code [...]}; only the elements between the brackets are
+   * copied out.
+   */
+  private static class ChunkBuffer extends ByteArrayOutputStream {
+
+    private ChunkBuffer() {
+      super(INITIAL_BUFFER_SIZE);
+    }
+
+    private boolean hasElements() {
+      return count > 2;
+    }
+
+    private void writeElementsTo(OutputStream outputStream) throws IOException {
+      outputStream.write(buf, 1, count - 2);
+    }
+  }
+}
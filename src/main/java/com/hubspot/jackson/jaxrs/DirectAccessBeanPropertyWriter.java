@@ -0,0 +1,199 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * {@link BeanPropertyWriter} that reads its value through a direct getter call instead of
+ * reflection: either one generated at compile time (see {@link PropertyFilteringAccessors}),
+ * used as soon as the bean serializer is built, or one spun up with {@link LambdaMetafactory}
+ * once a filter state gets hot. Serialization otherwise follows
+ * {@link BeanPropertyWriter#serializeAsField} exactly.
+ */
+class DirectAccessBeanPropertyWriter extends BeanPropertyWriter {
+
+  private static final long serialVersionUID = 1L;
+
+  // most types have none, so look each one up once
+  private static final ClassValue<PropertyFilteringAccessors> GENERATED_ACCESSORS =
+    new ClassValue<>() {
+      @Override
+      protected PropertyFilteringAccessors computeValue(Class<?> type) {
+        return loadGeneratedAccessors(type);
+      }
+    };
+
+  private final transient Function<Object, Object> accessor;
+
+  private DirectAccessBeanPropertyWriter(
+    BeanPropertyWriter base,
+    Function<Object, Object> accessor
+  ) {
+    super(base);
+    this.accessor = accessor;
+  }
+
+  /**
+   * Returns a copy of {@code writer} reading through an accessor generated at compile time, or
+   * {@code writer} itself if there's none for it.
+   */
+  static BeanPropertyWriter tryCreateGenerated(BeanPropertyWriter writer) {
+    Method method = findGetter(writer);
+    if (method == null) {
+      return writer;
+    }
+
+    Function<Object, Object> accessor = findGeneratedAccessor(method);
+    return accessor == null ? writer : new DirectAccessBeanPropertyWriter(writer, accessor);
+  }
+
+  /**
+   * Returns a direct-access copy of {@code writer}, or {@code writer} itself if it isn't a plain
+   * getter-backed property or the accessor can't be generated.
+   */
+  static BeanPropertyWriter tryCreate(BeanPropertyWriter writer) {
+    Method method = findGetter(writer);
+    if (method == null) {
+      return writer;
+    }
+
+    Function<Object, Object> accessor = findGeneratedAccessor(method);
+    if (accessor != null) {
+      return new DirectAccessBeanPropertyWriter(writer, accessor);
+    }
+
+    try {
+      return new DirectAccessBeanPropertyWriter(writer, generateAccessor(method));
+    } catch (Throwable t) {
+      // inaccessible modules, hidden class limits and so on; reflection still works
+      return writer;
+    }
+  }
+
+  private static Method findGetter(BeanPropertyWriter writer) {
+    if (writer.getClass() != BeanPropertyWriter.class) {
+      return null;
+    }
+
+    AnnotatedMember member = writer.getMember();
+    if (!(member instanceof AnnotatedMethod)) {
+      return null;
+    }
+
+    Method method = ((AnnotatedMethod) member).getAnnotated();
+    if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) {
+      return null;
+    }
+
+    return method;
+  }
+
+  private static Function<Object, Object> findGeneratedAccessor(Method method) {
+    PropertyFilteringAccessors accessors = GENERATED_ACCESSORS.get(method.getDeclaringClass());
+    return accessors == null ? null : accessors.forGetter(method.getName());
+  }
+
+  private static PropertyFilteringAccessors loadGeneratedAccessors(Class<?> type) {
+    try {
+      Class<?> accessorsClass = Class.forName(
+        PropertyFilteringAccessors.classNameFor(type),
+        true,
+        type.getClassLoader()
+      );
+      if (!PropertyFilteringAccessors.class.isAssignableFrom(accessorsClass)) {
+        return null;
+      }
+
+      return (PropertyFilteringAccessors) accessorsClass.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> generateAccessor(Method method) throws Throwable {
+    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(
+      method.getDeclaringClass(),
+      MethodHandles.lookup()
+    );
+    MethodHandle getter = lookup.unreflect(method);
+
+    CallSite site = LambdaMetafactory.metafactory(
+      lookup,
+      "apply",
+      MethodType.methodType(Function.class),
+      MethodType.methodType(Object.class, Object.class),
+      getter,
+      getter.type().wrap()
+    );
+
+    return (Function<Object, Object>) site.getTarget().invoke();
+  }
+
+  @Override
+  protected BeanPropertyWriter _new(PropertyName newName) {
+    // renamed for @JsonUnwrapped prefixes and suffixes, the getter stays the same
+    return new DirectAccessBeanPropertyWriter(super._new(newName), accessor);
+  }
+
+  @Override
+  public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov)
+    throws Exception {
+    final Object value = accessor.apply(bean);
+    if (value == null) {
+      if (_suppressableValue != null && prov.includeFilterSuppressNulls(_suppressableValue)) {
+        return;
+      }
+      if (_nullSerializer != null) {
+        gen.writeFieldName(_name);
+        _nullSerializer.serialize(null, gen, prov);
+      }
+      return;
+    }
+
+    JsonSerializer<Object> ser = _serializer;
+    if (ser == null) {
+      Class<?> cls = value.getClass();
+      PropertySerializerMap map = _dynamicSerializers;
+      ser = map.serializerFor(cls);
+      if (ser == null) {
+        ser = _findAndAddDynamic(map, cls, prov);
+      }
+    }
+
+    if (_suppressableValue != null) {
+      if (MARKER_FOR_EMPTY == _suppressableValue) {
+        if (ser.isEmpty(prov, value)) {
+          return;
+        }
+      } else if (_suppressableValue.equals(value)) {
+        return;
+      }
+    }
+
+    if (value == bean && _handleSelfReference(bean, gen, prov, ser)) {
+      return;
+    }
+
+    gen.writeFieldName(_name);
+    if (_typeSerializer == null) {
+      ser.serialize(value, gen, prov);
+    } else {
+      ser.serializeWithType(value, gen, prov, _typeSerializer);
+    }
+  }
+}
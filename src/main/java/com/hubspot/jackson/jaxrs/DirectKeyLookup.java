@@ -0,0 +1,77 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the entries a filter lets through out of a large {@code Map} with one lookup per
+ * included name, when the filter at that level is a finite set of names (see
+ * {@link PropertyFilter#includedNames(TokenFilter)}). Visiting every entry to ask the filter
+ * about it costs as much as the map is large; this costs as much as the filter is.
+ *
+ * <p>The selected entries come out in the sorted order of the filter's names, so this only
+ * applies to maps without an order of their own to keep ({@code HashMap},
+ * {@code ConcurrentHashMap}) or whose order is exactly that one (naturally ordered
+ * {@code SortedMap}s), and that are large compared to the filter.
+ */
+final class DirectKeyLookup {
+
+  // below this size, iterating costs about the same as the lookups
+  static final int MIN_SIZE = 64;
+
+  private DirectKeyLookup() {
+    throw new AssertionError();
+  }
+
+  static boolean isCheaper(int size, String[] names) {
+    return names != null && size >= MIN_SIZE && size > 4 * names.length;
+  }
+
+  /**
+   * Returns the entries of {@code value} that {@code filter} includes at the top level, or
+   * {@code value} itself if it isn't a map worth looking into.
+   */
+  static Object select(Object value, TokenFilter filter) {
+    if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      String[] names = PropertyFilter.includedNames(filter);
+      if (isCheaper(map.size(), names) && hasStringKeys(map)) {
+        return select(map, names);
+      }
+    }
+
+    return value;
+  }
+
+  static Map<Object, Object> select(Map<?, ?> map, String[] names) {
+    Map<Object, Object> selected = new LinkedHashMap<>();
+    for (String name : names) {
+      Object value = map.get(name);
+      if (value != null || map.containsKey(name)) {
+        selected.put(name, value);
+      }
+    }
+
+    return selected;
+  }
+
+  /**
+   * Whether {@code map} looks entries up by {@code String.equals}, with {@code String} keys, and
+   * iterates in no particular order or in the natural order of its keys. Only the first key is
+   * checked: a map mixing key types would serialize names ambiguously anyway.
+   */
+  static boolean hasStringKeys(Map<?, ?> map) {
+    // exact classes, LinkedHashMap and other subclasses keep orders of their own
+    boolean unordered =
+      map.getClass() == HashMap.class ||
+      map.getClass() == ConcurrentHashMap.class ||
+      (map instanceof SortedMap && ((SortedMap<?, ?>) map).comparator() == null);
+    return (
+      unordered && !map.isEmpty() && map.keySet().iterator().next() instanceof String
+    );
+  }
+}
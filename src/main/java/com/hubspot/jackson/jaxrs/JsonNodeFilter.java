@@ -0,0 +1,127 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Filters a {@link JsonNode} tree in place in a single pass: every field is looked up once in
+ * the compiled filter, which says whether to drop it, keep it whole or descend into it with
+ * the filter for its children. Arrays of at least {@code parallelThreshold} elements can be
+ * split across a {@link ForkJoinPool}; elements are filtered independently, so that is only
+ * safe for trees that don't share node instances between elements.
+ */
+final class JsonNodeFilter {
+
+  private final ForkJoinPool pool;
+  private final int parallelThreshold;
+
+  private JsonNodeFilter(ForkJoinPool pool, int parallelThreshold) {
+    this.pool = pool;
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  static void filter(JsonNode node, TokenFilter filter) {
+    new JsonNodeFilter(null, Integer.MAX_VALUE).filter(node, filter, false);
+  }
+
+  static void filter(
+    JsonNode node,
+    TokenFilter filter,
+    ForkJoinPool pool,
+    int parallelThreshold
+  ) {
+    new JsonNodeFilter(pool, Math.max(parallelThreshold, 1)).filter(node, filter, false);
+  }
+
+  private void filter(JsonNode node, TokenFilter filter, boolean forked) {
+    if (filter == TokenFilter.INCLUDE_ALL) {
+      return;
+    }
+
+    if (node.isObject()) {
+      filter((ObjectNode) node, filter, forked);
+    } else if (node.isArray()) {
+      filter((ArrayNode) node, filter, forked);
+    }
+  }
+
+  private void filter(ObjectNode object, TokenFilter filter, boolean forked) {
+    Iterator<Entry<String, JsonNode>> fields = object.fields();
+    while (fields.hasNext()) {
+      Entry<String, JsonNode> field = fields.next();
+      TokenFilter fieldFilter = filter.includeProperty(field.getKey());
+      if (fieldFilter == null) {
+        fields.remove();
+      } else {
+        filter(field.getValue(), fieldFilter, forked);
+      }
+    }
+  }
+
+  private void filter(ArrayNode array, TokenFilter filter, boolean forked) {
+    if (pool != null && array.size() >= parallelThreshold) {
+      // a few chunks per worker so that uneven elements still balance out
+      int chunkSize = Math.max(array.size() / (pool.getParallelism() * 4), 1);
+      ArrayTask task = new ArrayTask(array, 0, array.size(), chunkSize, filter);
+      if (forked) {
+        // already running in the pool, split further within this task
+        task.invoke();
+      } else {
+        pool.invoke(task);
+      }
+      return;
+    }
+
+    for (JsonNode element : array) {
+      filter(element, filter, forked);
+    }
+  }
+
+  private class ArrayTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ArrayNode array;
+    private final int start;
+    private final int end;
+    private final int chunkSize;
+    private final transient TokenFilter filter;
+
+    private ArrayTask(
+      ArrayNode array,
+      int start,
+      int end,
+      int chunkSize,
+      TokenFilter filter
+    ) {
+      this.array = array;
+      this.start = start;
+      this.end = end;
+      this.chunkSize = chunkSize;
+      this.filter = filter;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start > chunkSize) {
+        int middle = (start + end) >>> 1;
+        ForkJoinTask.invokeAll(
+          new ArrayTask(array, start, middle, chunkSize, filter),
+          new ArrayTask(array, middle, end, chunkSize, filter)
+        );
+        return;
+      }
+
+      for (int i = start; i < end; i++) {
+        JsonNodeFilter.this.filter(array.get(i), filter, true);
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.jaxrs.json.JsonEndpointConfig;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepared {@link ObjectWriter}s keyed by mapper and annotation array identity. JAX-RS
+ * implementations hand the same annotation array to every response of a resource method, so
+ * this replaces a {@link JsonEndpointConfig} scan per request with two identity lookups.
+ */
+class ObjectWriterCache {
+
+  private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+  private final int maximumSize;
+  private final ConcurrentHashMap<ObjectMapper, ConcurrentHashMap<Annotation[], ObjectWriter>> writers;
+
+  ObjectWriterCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.writers = new ConcurrentHashMap<>();
+  }
+
+  ObjectWriter get(ObjectMapper mapper, Annotation[] annotations) {
+    if (annotations == null) {
+      annotations = NO_ANNOTATIONS;
+    }
+
+    ConcurrentHashMap<Annotation[], ObjectWriter> mapperWriters = writers.get(mapper);
+    if (mapperWriters == null) {
+      mapperWriters = writers.computeIfAbsent(mapper, m -> new ConcurrentHashMap<>());
+    }
+
+    ObjectWriter writer = mapperWriters.get(annotations);
+    if (writer != null) {
+      return writer;
+    }
+
+    writer = JsonEndpointConfig.forWriting(mapper.writer(), annotations, null).getWriter();
+    if (mapperWriters.size() >= maximumSize) {
+      // arrays that aren't reused (built per response) would otherwise pile up forever
+      mapperWriters.clear();
+    }
+    mapperWriters.put(annotations, writer);
+
+    return writer;
+  }
+}
@@ -2,46 +2,313 @@ package com.hubspot.jackson.jaxrs;
 
 import com.fasterxml.jackson.core.filter.TokenFilter;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 public class PropertyFilter extends TokenFilter {
 
-  private final NestedPropertyFilter filter = new NestedPropertyFilter();
+  /**
+   * Request property under which {@link PropertyFilteringFeature} makes the filter of a
+   * {@link PropertyFiltering} request available to the resource method, e.g. through
+   * {@code HttpServletRequest#getAttribute(String)}.
+   */
+  public static final String PROPERTY_NAME = PropertyFilter.class.getName();
+
+  private final NestedPropertyFilter filter;
+  private final TokenFilter compiledFilter;
+  private final List<String> paths;
+  private final List<String> unknownPaths;
 
   public PropertyFilter(Collection<String> properties) {
+    this.filter = new NestedPropertyFilter();
+    Set<String> paths = new TreeSet<>();
     for (String property : properties) {
       if (!property.isEmpty()) {
         filter.addProperty(property);
+        paths.add(property);
       }
     }
+    this.paths = List.copyOf(paths);
+    this.unknownPaths = Collections.emptyList();
 
     applyWildcardsToNamedProperties(filter);
+    compiledFilter = filter.compile();
+  }
+
+  private PropertyFilter(
+    PropertyFilter source,
+    TokenFilter compiledFilter,
+    List<String> unknownPaths
+  ) {
+    this.filter = source.filter;
+    this.compiledFilter = compiledFilter;
+    this.paths = source.paths;
+    this.unknownPaths = unknownPaths;
   }
 
+  /**
+   * Whether any properties were requested, even ones like {@code *} that leave nothing out. See
+   * {@link #includesAll()} for whether anything is actually filtered.
+   */
   public boolean hasFilters() {
     return filter.hasFilters();
   }
 
+  /**
+   * Whether every property is written, like with no properties requested or with {@code *}, so
+   * that callers can write values the plain way.
+   */
+  public boolean includesAll() {
+    return compiledFilter == TokenFilter.INCLUDE_ALL;
+  }
+
+  /**
+   * Whether no property at all of the root value is written, like with {@code !*}, so that an
+   * object comes out as <code>{}</code> whatever its contents.
+   */
+  public boolean excludesAll() {
+    String[] names = includedNames(compiledFilter);
+    return names != null && names.length == 0;
+  }
+
   public void filter(JsonNode node) {
-    filter.filter(node);
+    if (!includesAll()) {
+      JsonNodeFilter.filter(node, compiledFilter);
+    }
+  }
+
+  /**
+   * Same as {@link #filter(JsonNode)}, except that arrays of at least {@code parallelThreshold}
+   * elements have their elements filtered in parallel on {@code pool}. The tree must not use the
+   * same node instance in more than one element of such an array.
+   */
+  public void filter(JsonNode node, ForkJoinPool pool, int parallelThreshold) {
+    if (!includesAll()) {
+      JsonNodeFilter.filter(node, compiledFilter, pool, parallelThreshold);
+    }
   }
 
   public boolean matches(String property) {
     return filter.matches(property);
   }
 
+  /**
+   * The properties this filter was built from, sorted and without duplicates, exclusions
+   * ({@code !name}) and wildcards included. Empty if nothing is filtered.
+   */
+  public List<String> getPaths() {
+    return paths;
+  }
+
+  /**
+   * The requested paths (see {@link #getPaths()}) that name a property the type this filter was
+   * {@linkplain #resolve(TypeShape) resolved} against can't have. Always empty for unresolved
+   * filters.
+   */
+  public List<String> getUnknownPaths() {
+    return unknownPaths;
+  }
+
+  /**
+   * This filter with every transition for a property that {@code shape} can't have left out,
+   * the properties a wildcard applies to spelled out, and unknown paths recorded. The result
+   * writes the same as this filter for values of that shape.
+   */
+  PropertyFilter resolve(TypeShape shape) {
+    if (includesAll() || shape.isOpen()) {
+      return this;
+    }
+
+    List<String> unknownPaths = new ArrayList<>();
+    for (String path : paths) {
+      if (!isKnown(path, path.startsWith("!") ? 1 : 0, shape)) {
+        unknownPaths.add(path);
+      }
+    }
+
+    return new PropertyFilter(
+      this,
+      resolve(compiledFilter, shape),
+      unknownPaths.isEmpty() ? Collections.emptyList() : List.copyOf(unknownPaths)
+    );
+  }
+
+  private static TokenFilter resolve(TokenFilter filter, TypeShape shape) {
+    if (!(filter instanceof CompiledPropertyFilter) || shape.isOpen()) {
+      return filter;
+    }
+
+    CompiledPropertyFilter compiled = (CompiledPropertyFilter) filter;
+    Map<String, TokenFilter> transitions = new HashMap<>();
+    for (Entry<String, TypeShape> property : shape.getProperties().entrySet()) {
+      TokenFilter transition = compiled.transitions.get(property.getKey());
+      if (transition == null && compiled.defaultTransition instanceof CompiledPropertyFilter) {
+        // wildcard subfilters get narrowed for each property separately
+        transition = compiled.defaultTransition;
+      }
+
+      if (transition != null) {
+        transitions.put(property.getKey(), resolve(transition, property.getValue()));
+      }
+    }
+
+    return new CompiledPropertyFilter(transitions, compiled.defaultTransition);
+  }
+
+  private static boolean isKnown(String path, int start, TypeShape shape) {
+    if (shape.isOpen()) {
+      return true;
+    }
+
+    int dot = path.indexOf('.', start);
+    int end = dot < 0 ? path.length() : dot;
+    if (end - start == 1 && path.charAt(start) == '*') {
+      if (dot < 0) {
+        return true;
+      }
+
+      for (TypeShape property : shape.getProperties().values()) {
+        if (isKnown(path, dot + 1, property)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    TypeShape property = shape.getProperties().get(path.substring(start, end));
+    if (property == null) {
+      return false;
+    }
+
+    return dot < 0 || isKnown(path, dot + 1, property);
+  }
+
+  /**
+   * Whether the value at the dotted {@code path} is written, walking the compiled filter one
+   * segment at a time without allocating. A path that is only partly written, like an object of
+   * which just some properties are requested, is included. Unlike {@link #matches(String)} this
+   * always agrees with the serialized output, wildcards included.
+   */
+  public boolean includes(CharSequence path) {
+    TokenFilter filter = compiledFilter;
+    int length = path.length();
+    int start = 0;
+    while (filter != TokenFilter.INCLUDE_ALL) {
+      int end = start;
+      while (end < length && path.charAt(end) != '.') {
+        end++;
+      }
+
+      filter = includeProperty(filter, path, start, end);
+      if (filter == null) {
+        return false;
+      } else if (end == length) {
+        return true;
+      }
+
+      start = end + 1;
+    }
+
+    return true;
+  }
+
+  /**
+   * Whether everything under the dotted {@code path} is written, e.g. so that a related entity
+   * has to be loaded in full rather than only some of its fields.
+   */
+  public boolean includesAll(CharSequence path) {
+    TokenFilter filter = compiledFilter;
+    int length = path.length();
+    int start = 0;
+    while (filter != TokenFilter.INCLUDE_ALL) {
+      if (start > length) {
+        return false;
+      }
+
+      int end = start;
+      while (end < length && path.charAt(end) != '.') {
+        end++;
+      }
+
+      filter = includeProperty(filter, path, start, end);
+      if (filter == null) {
+        return false;
+      }
+
+      start = end + 1;
+    }
+
+    return true;
+  }
+
+  private static TokenFilter includeProperty(
+    TokenFilter filter,
+    CharSequence path,
+    int start,
+    int end
+  ) {
+    if (filter instanceof CompiledPropertyFilter) {
+      return ((CompiledPropertyFilter) filter).includeProperty(path, start, end);
+    }
+
+    return filter.includeProperty(path.subSequence(start, end).toString());
+  }
+
+  /**
+   * The filter for the properties of the root value, {@link TokenFilter#INCLUDE_ALL} if
+   * nothing is filtered.
+   */
+  TokenFilter getCompiledFilter() {
+    return compiledFilter;
+  }
+
   @Override
   public TokenFilter includeProperty(String name) {
-    return filter.includeProperty(name);
+    return compiledFilter.includeProperty(name);
+  }
+
+  /**
+   * {@link TokenFilter#includeProperty(String)} for a property name given as the UTF-8 bytes
+   * {@code utf8[start, end)} (unescaped), without decoding it for filters of this class.
+   */
+  static TokenFilter includeProperty(TokenFilter filter, byte[] utf8, int start, int end) {
+    if (filter instanceof PropertyFilter) {
+      filter = ((PropertyFilter) filter).compiledFilter;
+    }
+
+    if (filter instanceof CompiledPropertyFilter) {
+      return ((CompiledPropertyFilter) filter).includeProperty(utf8, start, end);
+    }
+
+    return filter.includeProperty(new String(utf8, start, end - start, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The names, sorted, of the only properties {@code filter} lets through, or {@code null} if
+   * it lets through names it doesn't list (wildcards, exclusions only, a foreign filter).
+   */
+  static String[] includedNames(TokenFilter filter) {
+    if (filter instanceof PropertyFilter) {
+      filter = ((PropertyFilter) filter).compiledFilter;
+    }
+
+    if (filter instanceof CompiledPropertyFilter) {
+      return ((CompiledPropertyFilter) filter).includedNames;
+    }
+
+    return null;
   }
 
   @Override
@@ -65,7 +332,248 @@ public class PropertyFilter extends TokenFilter {
     }
   }
 
-  private static class NestedPropertyFilter extends TokenFilter {
+  private static final TokenFilter EXCLUDED = new TokenFilter() {};
+
+  /**
+   * Immutable form of a {@link NestedPropertyFilter} where wildcards, excludes and nested
+   * filters have already been resolved, so that each call to {@link #includeProperty(String)}
+   * is a single map lookup that allocates nothing.
+   */
+  private static class CompiledPropertyFilter extends TokenFilter {
+
+    private final Map<String, TokenFilter> transitions;
+    private final TokenFilter defaultTransition;
+    // the same transitions in an open addressing table keyed by UTF-8 name, probed by both the
+    // parser's raw names and includes' path segments
+    private final byte[][] utf8Names;
+    private final TokenFilter[] utf8Transitions;
+    // non-null when no name outside the transitions is included
+    private final String[] includedNames;
+
+    private CompiledPropertyFilter(
+      Map<String, TokenFilter> transitions,
+      TokenFilter defaultTransition
+    ) {
+      this.transitions = transitions;
+      this.defaultTransition = defaultTransition;
+
+      int capacity = Integer.highestOneBit(Math.max(transitions.size(), 1) * 4 - 1) << 1;
+      this.utf8Names = new byte[capacity][];
+      this.utf8Transitions = new TokenFilter[capacity];
+      for (Entry<String, TokenFilter> transition : transitions.entrySet()) {
+        byte[] name = transition.getKey().getBytes(StandardCharsets.UTF_8);
+        int slot = hash(name, 0, name.length) & (capacity - 1);
+        while (utf8Names[slot] != null) {
+          slot = (slot + 1) & (capacity - 1);
+        }
+        utf8Names[slot] = name;
+        utf8Transitions[slot] = transition.getValue();
+      }
+
+      if (defaultTransition == null) {
+        this.includedNames =
+          transitions
+            .entrySet()
+            .stream()
+            .filter(transition -> transition.getValue() != EXCLUDED)
+            .map(Entry::getKey)
+            .sorted()
+            .toArray(String[]::new);
+      } else {
+        this.includedNames = null;
+      }
+    }
+
+    @Override
+    public TokenFilter includeProperty(String name) {
+      return resolve(transitions.get(name));
+    }
+
+    private TokenFilter includeProperty(byte[] utf8, int start, int end) {
+      int mask = utf8Names.length - 1;
+      int slot = hash(utf8, start, end) & mask;
+      byte[] name;
+      while ((name = utf8Names[slot]) != null) {
+        if (Arrays.equals(name, 0, name.length, utf8, start, end)) {
+          return resolve(utf8Transitions[slot]);
+        }
+        slot = (slot + 1) & mask;
+      }
+
+      return defaultTransition;
+    }
+
+    /**
+     * {@link #includeProperty(byte[], int, int)} for the name {@code chars[start, end)},
+     * encoded to UTF-8 on the fly rather than into an array.
+     */
+    private TokenFilter includeProperty(CharSequence chars, int start, int end) {
+      int mask = utf8Names.length - 1;
+      int slot = hash(chars, start, end) & mask;
+      byte[] name;
+      while ((name = utf8Names[slot]) != null) {
+        if (utf8Equals(name, chars, start, end)) {
+          return resolve(utf8Transitions[slot]);
+        }
+        slot = (slot + 1) & mask;
+      }
+
+      return defaultTransition;
+    }
+
+    private TokenFilter resolve(TokenFilter transition) {
+      if (transition == null) {
+        return defaultTransition;
+      } else if (transition == EXCLUDED) {
+        return null;
+      } else {
+        return transition;
+      }
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+      int hash = 1;
+      for (int i = start; i < end; i++) {
+        hash = 31 * hash + bytes[i];
+      }
+      return hash ^ (hash >>> 16);
+    }
+
+    // same as hash(chars.toString().getBytes(UTF_8), ...)
+    private static int hash(CharSequence chars, int start, int end) {
+      int hash = 1;
+      for (int i = start; i < end; ) {
+        int codePoint = codePointAt(chars, i, end);
+        int length = utf8Length(codePoint);
+        for (int k = 0; k < length; k++) {
+          hash = 31 * hash + utf8Byte(codePoint, length, k);
+        }
+        i += Character.charCount(codePoint);
+      }
+      return hash ^ (hash >>> 16);
+    }
+
+    private static boolean utf8Equals(byte[] name, CharSequence chars, int start, int end) {
+      int position = 0;
+      for (int i = start; i < end; ) {
+        int codePoint = codePointAt(chars, i, end);
+        int length = utf8Length(codePoint);
+        if (position + length > name.length) {
+          return false;
+        }
+
+        for (int k = 0; k < length; k++) {
+          if (name[position++] != utf8Byte(codePoint, length, k)) {
+            return false;
+          }
+        }
+        i += Character.charCount(codePoint);
+      }
+      return position == name.length;
+    }
+
+    // unpaired surrogates come out as '?', like they do from String.getBytes
+    private static int codePointAt(CharSequence chars, int i, int end) {
+      char c = chars.charAt(i);
+      if (!Character.isSurrogate(c)) {
+        return c;
+      } else if (
+        Character.isHighSurrogate(c) &&
+        i + 1 < end &&
+        Character.isLowSurrogate(chars.charAt(i + 1))
+      ) {
+        return Character.toCodePoint(c, chars.charAt(i + 1));
+      } else {
+        return '?';
+      }
+    }
+
+    private static int utf8Length(int codePoint) {
+      if (codePoint < 0x80) {
+        return 1;
+      } else if (codePoint < 0x800) {
+        return 2;
+      } else if (codePoint < 0x10000) {
+        return 3;
+      } else {
+        return 4;
+      }
+    }
+
+    // byte k of the length bytes encoding codePoint
+    private static byte utf8Byte(int codePoint, int length, int k) {
+      if (length == 1) {
+        return (byte) codePoint;
+      }
+
+      int shift = 6 * (length - 1 - k);
+      if (k == 0) {
+        int lead = length == 2 ? 0xC0 : length == 3 ? 0xE0 : 0xF0;
+        return (byte) (lead | (codePoint >> shift));
+      }
+      return (byte) (0x80 | ((codePoint >> shift) & 0x3F));
+    }
+
+    @Override
+    public String toString() {
+      return new StringJoiner(", ", "CompiledPropertyFilter[", "]")
+        .add("transitions=" + transitions)
+        .add("defaultTransition=" + defaultTransition)
+        .toString();
+    }
+  }
+
+  /**
+   * The range {@code [start, end)} of a property path, for looking up the string keys of a
+   * {@link HashMap} or {@link HashSet} without creating a string. It hashes like the string of
+   * its chars and equals such a string, which is all a lookup asks of its argument. It is never
+   * stored as a key itself.
+   */
+  private static final class Segment {
+
+    private final String path;
+    private int start;
+    private int end;
+    private int hash;
+
+    private Segment(String path) {
+      this.path = path;
+    }
+
+    private void set(int start, int end) {
+      int hash = 0;
+      for (int i = start; i < end; i++) {
+        hash = 31 * hash + path.charAt(i);
+      }
+
+      this.start = start;
+      this.end = end;
+      this.hash = hash;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof String)) {
+        return false;
+      }
+
+      String name = (String) other;
+      return name.length() == end - start && path.regionMatches(start, name, 0, end - start);
+    }
+
+    @Override
+    public String toString() {
+      // the whole path comes back as is
+      return path.substring(start, end);
+    }
+  }
+
+  private static class NestedPropertyFilter {
 
     private final Set<String> includedProperties = new HashSet<String>();
     private final Set<String> excludedProperties = new HashSet<String>();
@@ -73,31 +581,46 @@ public class PropertyFilter extends TokenFilter {
       new HashMap<String, NestedPropertyFilter>();
 
     public void addProperty(String property) {
-      boolean excluded = property.startsWith("!");
-      if (excluded) {
-        property = property.substring(1);
-      }
+      addProperty(property, 0, new Segment(property));
+    }
 
-      if (property.contains(".")) {
-        String prefix = property.substring(0, property.indexOf('.'));
-        String suffix = property.substring(property.indexOf('.') + 1);
+    /**
+     * Adds the property starting at {@code start}, walking down the path by index. Names are
+     * looked up by their range in {@code property}, so the only strings created are the
+     * segment names stored for the first time.
+     */
+    private void addProperty(String property, int start, Segment segment) {
+      boolean excluded = property.startsWith("!", start);
+      addProperty(property, excluded ? start + 1 : start, excluded, segment);
+    }
 
-        NestedPropertyFilter nestedFilter = nestedProperties.get(prefix);
-        if (nestedFilter == null) {
-          nestedFilter = new NestedPropertyFilter();
-          nestedProperties.put(prefix, nestedFilter);
-        }
+    private void addProperty(String property, int start, boolean excluded, Segment segment) {
+      int dot = property.indexOf('.', start);
+      if (dot < 0) {
+        segment.set(start, property.length());
+        add(excluded ? excludedProperties : includedProperties, segment);
+        return;
+      }
 
-        if (excluded) {
-          nestedFilter.addProperty("!" + suffix);
-        } else {
-          nestedFilter.addProperty(suffix);
-          includedProperties.add(prefix);
-        }
-      } else if (excluded) {
-        excludedProperties.add(property);
+      segment.set(start, dot);
+      NestedPropertyFilter nestedFilter = nestedProperties.get(segment);
+      if (nestedFilter == null) {
+        nestedFilter = new NestedPropertyFilter();
+        nestedProperties.put(segment.toString(), nestedFilter);
+      }
+
+      if (excluded) {
+        // exclusions apply to the leaf, a "!" further down is just part of the name
+        nestedFilter.addProperty(property, dot + 1, true, segment);
       } else {
-        includedProperties.add(property);
+        add(includedProperties, segment);
+        nestedFilter.addProperty(property, dot + 1, segment);
+      }
+    }
+
+    private static void add(Set<String> names, Segment segment) {
+      if (!names.contains(segment)) {
+        names.add(segment.toString());
       }
     }
 
@@ -114,14 +637,6 @@ public class PropertyFilter extends TokenFilter {
       );
     }
 
-    public void filter(JsonNode node) {
-      if (node.isObject()) {
-        filter((ObjectNode) node);
-      } else if (node.isArray()) {
-        filter((ArrayNode) node);
-      }
-    }
-
     public boolean matches(String property) {
       if (!hasFilters()) {
         return true;
@@ -162,14 +677,43 @@ public class PropertyFilter extends TokenFilter {
       }
     }
 
-    private void filter(ArrayNode array) {
-      for (JsonNode node : array) {
-        filter(node);
+    /**
+     * Resolves every transition out of this node up front: the result for each property name
+     * mentioned at this level, plus a single fallback for all other names.
+     */
+    public TokenFilter compile() {
+      Map<String, TokenFilter> compiledNested = new HashMap<>();
+      for (Entry<String, NestedPropertyFilter> nested : nestedProperties.entrySet()) {
+        compiledNested.put(nested.getKey(), nested.getValue().compile());
       }
+
+      Set<String> names = new HashSet<>(includedProperties);
+      names.addAll(excludedProperties);
+      names.addAll(nestedProperties.keySet());
+
+      Map<String, TokenFilter> transitions = new HashMap<>();
+      for (String name : names) {
+        TokenFilter transition = resolve(name, compiledNested);
+        transitions.put(name, transition == null ? EXCLUDED : transition);
+      }
+
+      TokenFilter defaultTransition = resolve(null, compiledNested);
+      if (defaultTransition == TokenFilter.INCLUDE_ALL) {
+        boolean includesAll = true;
+        for (TokenFilter transition : transitions.values()) {
+          includesAll &= transition == TokenFilter.INCLUDE_ALL;
+        }
+        if (includesAll) {
+          // e.g. "*", nothing to check at this level or below
+          return TokenFilter.INCLUDE_ALL;
+        }
+      }
+
+      return new CompiledPropertyFilter(transitions, defaultTransition);
     }
 
-    @Override
-    public TokenFilter includeProperty(String name) {
+    // a null name stands in for any property not mentioned at this level
+    private TokenFilter resolve(String name, Map<String, TokenFilter> compiledNested) {
       if (
         !includedProperties.isEmpty() &&
         !includedProperties.contains("*") &&
@@ -178,10 +722,10 @@ public class PropertyFilter extends TokenFilter {
         return null;
       } else if (excludedProperties.contains("*") || excludedProperties.contains(name)) {
         return null;
-      } else if (nestedProperties.containsKey(name)) {
-        return nestedProperties.get(name);
-      } else if (nestedProperties.containsKey("*")) {
-        return nestedProperties.get("*");
+      } else if (compiledNested.containsKey(name)) {
+        return compiledNested.get(name);
+      } else if (compiledNested.containsKey("*")) {
+        return compiledNested.get("*");
       } else {
         return TokenFilter.INCLUDE_ALL;
       }
@@ -195,28 +739,5 @@ public class PropertyFilter extends TokenFilter {
         .add("nestedProperties=" + nestedProperties)
         .toString();
     }
-
-    private void filter(ObjectNode object) {
-      if (!includedProperties.isEmpty() && !includedProperties.contains("*")) {
-        object.retain(includedProperties);
-      }
-
-      if (excludedProperties.contains("*")) {
-        object.removeAll();
-      } else {
-        object.remove(excludedProperties);
-      }
-
-      Iterator<Entry<String, JsonNode>> fields = object.fields();
-      while (fields.hasNext()) {
-        Entry<String, JsonNode> field = fields.next();
-
-        if (nestedProperties.containsKey(field.getKey())) {
-          nestedProperties.get(field.getKey()).filter(field.getValue());
-        } else if (nestedProperties.containsKey("*")) {
-          nestedProperties.get("*").filter(field.getValue());
-        }
-      }
-    }
   }
 }
@@ -1,7 +1,6 @@
 package com.hubspot.jackson.jaxrs;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import javax.ws.rs.core.UriInfo;
@@ -12,12 +11,14 @@ public class PropertyFilterBuilder {
   private String queryParamName;
   private String[] alwaysInclude;
   private String prefix;
+  private PropertyFilterCache cache;
 
   private PropertyFilterBuilder(UriInfo uriInfo) {
     this.uriInfo = uriInfo;
     this.queryParamName = "property";
     this.alwaysInclude = new String[0];
     this.prefix = "";
+    this.cache = null;
   }
 
   public static PropertyFilterBuilder newBuilder(UriInfo uriInfo) {
@@ -46,34 +47,82 @@ public class PropertyFilterBuilder {
   }
 
   public PropertyFilterBuilder applyPrefix(String prefix) {
+    if (!prefix.isEmpty() && !prefix.endsWith(".")) {
+      prefix = prefix + ".";
+    }
     this.prefix = prefix;
     return this;
   }
 
-  public PropertyFilter build() {
-    List<String> properties = new ArrayList<>();
+  /**
+   * Look up (and store) the built filter in the given cache instead of compiling a new one.
+   * A {@code null} cache disables caching.
+   */
+  public PropertyFilterBuilder usingCache(PropertyFilterCache cache) {
+    this.cache = cache;
+    return this;
+  }
 
+  public PropertyFilter build() {
     List<String> values = uriInfo.getQueryParameters().get(queryParamName);
 
-    String prefix = this.prefix;
-    if (!prefix.isEmpty() && !prefix.endsWith(".")) {
-      prefix = prefix + ".";
-    }
+    List<String> properties = new ArrayList<>(
+      (values == null ? 0 : values.size()) + alwaysInclude.length
+    );
 
     if (values != null) {
       for (String value : values) {
-        String[] parts = value.split(",");
-        for (String part : parts) {
-          part = part.trim();
-          if (!part.isEmpty()) {
-            properties.add(prefix + part);
-          }
-        }
+        addProperties(value, properties);
+      }
+    }
+
+    Collections.addAll(properties, alwaysInclude);
+
+    if (cache == null) {
+      return new PropertyFilter(properties);
+    } else {
+      return cache.get(properties);
+    }
+  }
+
+  /**
+   * Scans a comma-separated query value in place, creating a string only for each non-empty
+   * trimmed property (and none at all for a single property without a prefix).
+   */
+  private void addProperties(String value, List<String> properties) {
+    int length = value.length();
+    int start = 0;
+    while (start <= length) {
+      int end = value.indexOf(',', start);
+      if (end < 0) {
+        end = length;
+      }
+
+      int partStart = start;
+      int partEnd = end;
+      while (partStart < partEnd && value.charAt(partStart) <= ' ') {
+        partStart++;
       }
+      while (partEnd > partStart && value.charAt(partEnd - 1) <= ' ') {
+        partEnd--;
+      }
+
+      if (partStart < partEnd) {
+        properties.add(property(value, partStart, partEnd));
+      }
+
+      start = end + 1;
     }
+  }
 
-    properties.addAll(Arrays.asList(alwaysInclude));
+  private String property(String value, int start, int end) {
+    if (prefix.isEmpty()) {
+      return value.substring(start, end);
+    }
 
-    return new PropertyFilter(properties);
+    return new StringBuilder(prefix.length() + end - start)
+      .append(prefix)
+      .append(value, start, end)
+      .toString();
   }
 }
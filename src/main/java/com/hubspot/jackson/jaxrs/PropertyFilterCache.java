@@ -0,0 +1,132 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded, thread-safe cache of compiled {@link PropertyFilter} instances. Filters are keyed by
+ * their canonical property list (sorted and deduplicated) so that equivalent requests share a
+ * single compiled filter regardless of parameter order. When the cache is full the oldest entry
+ * that hasn't been used since it was last considered for eviction is removed (second-chance).
+ */
+public class PropertyFilterCache {
+
+  private final int maximumSize;
+  private final ConcurrentHashMap<List<String>, Entry> filters;
+  private final Queue<List<String>> evictionQueue;
+  private final Meter hits;
+  private final Meter misses;
+  private final Meter evictions;
+
+  public PropertyFilterCache(int maximumSize, MetricRegistry metricRegistry) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+    }
+
+    this.maximumSize = maximumSize;
+    this.filters = new ConcurrentHashMap<>();
+    this.evictionQueue = new ConcurrentLinkedQueue<>();
+    this.hits = metricRegistry.meter(metricName("hits"));
+    this.misses = metricRegistry.meter(metricName("misses"));
+    this.evictions = metricRegistry.meter(metricName("evictions"));
+  }
+
+  public PropertyFilter get(Collection<String> properties) {
+    List<String> key = canonicalize(properties);
+
+    Entry entry = filters.get(key);
+    if (entry != null) {
+      hits.mark();
+      entry.markUsed();
+      return entry.filter;
+    }
+
+    misses.mark();
+    Entry created = new Entry(new PropertyFilter(key));
+    entry = filters.putIfAbsent(key, created);
+    if (entry != null) {
+      return entry.filter;
+    }
+
+    evictionQueue.add(key);
+    evictIfNecessary();
+    return created.filter;
+  }
+
+  public int size() {
+    return filters.size();
+  }
+
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  private void evictIfNecessary() {
+    // every cached key has exactly one slot in the queue, so once each entry has used up
+    // its second chance something is evicted
+    while (filters.size() > maximumSize) {
+      List<String> key = evictionQueue.poll();
+      if (key == null) {
+        return;
+      }
+
+      Entry entry = filters.get(key);
+      if (entry == null) {
+        continue;
+      }
+
+      if (entry.clearUsed()) {
+        evictionQueue.add(key);
+      } else if (filters.remove(key, entry)) {
+        evictions.mark();
+      }
+    }
+  }
+
+  private static List<String> canonicalize(Collection<String> properties) {
+    TreeSet<String> sorted = new TreeSet<>();
+    for (String property : properties) {
+      if (!property.isEmpty()) {
+        sorted.add(property);
+      }
+    }
+
+    return new ArrayList<>(sorted);
+  }
+
+  private static String metricName(String name) {
+    return MetricRegistry.name(PropertyFilterCache.class, name);
+  }
+
+  private static class Entry {
+
+    private final PropertyFilter filter;
+    private volatile boolean used;
+
+    private Entry(PropertyFilter filter) {
+      this.filter = filter;
+    }
+
+    private void markUsed() {
+      // avoid dirtying the cache line on every hit
+      if (!used) {
+        used = true;
+      }
+    }
+
+    private boolean clearUsed() {
+      boolean wasUsed = used;
+      if (wasUsed) {
+        used = false;
+      }
+      return wasUsed;
+    }
+  }
+}
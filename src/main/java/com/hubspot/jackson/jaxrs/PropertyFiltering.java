@@ -16,4 +16,10 @@ public @interface PropertyFiltering {
    * Prefix added to all requested property names. This does not apply to attributes specified with {@link #always()}
    */
   String prefix() default "";
+
+  /**
+   * Serialize large top-level collections returned by this endpoint in parallel chunks, see
+   * {@link PropertyFilteringMessageBodyWriter#parallelSerializationEnabled()}
+   */
+  boolean parallel() default false;
 }
@@ -0,0 +1,35 @@
+package com.hubspot.jackson.jaxrs;
+
+import java.util.function.Function;
+
+/**
+ * Getter accessors generated at compile time by the optional
+ * {@code jackson-jaxrs-propertyfiltering-processor} annotation processor for types returned
+ * from {@link PropertyFiltering} endpoints. When present, serializer-level filtering reads
+ * properties through these from the first write, instead of through reflection until a filter
+ * shape gets hot and then through accessors spun up at runtime. That also keeps them usable in
+ * native images.
+ */
+public interface PropertyFilteringAccessors {
+  String CLASS_NAME_SUFFIX = "_PropertyFilteringAccessors";
+
+  /**
+   * Returns a function invoking the no-arg getter {@code methodName} on its argument, or
+   * {@code null} if there's no accessor for that getter.
+   */
+  Function<Object, Object> forGetter(String methodName);
+
+  /**
+   * Name of the generated accessors class for {@code type}: same package, nested class names
+   * joined with underscores, followed by {@link #CLASS_NAME_SUFFIX}.
+   */
+  static String classNameFor(Class<?> type) {
+    String name = type.getName();
+    int packageEnd = name.lastIndexOf('.');
+    return (
+      name.substring(0, packageEnd + 1) +
+      name.substring(packageEnd + 1).replace('$', '_') +
+      CLASS_NAME_SUFFIX
+    );
+  }
+}
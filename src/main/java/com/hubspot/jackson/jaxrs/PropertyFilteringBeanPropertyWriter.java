@@ -0,0 +1,78 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonObjectFormatVisitor;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+/**
+ * Wraps a {@link BeanPropertyWriter} so that properties excluded by the {@link PropertyFilter}
+ * being applied to the generator are skipped before their accessor is invoked. Modelled after
+ * Jackson's own view-filtering writer: everything else is passed through to the delegate.
+ */
+public class PropertyFilteringBeanPropertyWriter extends BeanPropertyWriter {
+
+  private static final long serialVersionUID = 1L;
+
+  private final BeanPropertyWriter delegate;
+
+  public PropertyFilteringBeanPropertyWriter(BeanPropertyWriter delegate) {
+    super(delegate);
+    this.delegate = delegate;
+  }
+
+  BeanPropertyWriter getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public PropertyFilteringBeanPropertyWriter rename(NameTransformer transformer) {
+    return new PropertyFilteringBeanPropertyWriter(delegate.rename(transformer));
+  }
+
+  @Override
+  public BeanPropertyWriter unwrappingWriter(NameTransformer unwrapper) {
+    return delegate.unwrappingWriter(unwrapper);
+  }
+
+  @Override
+  public void assignSerializer(JsonSerializer<Object> serializer) {
+    delegate.assignSerializer(serializer);
+  }
+
+  @Override
+  public void assignNullSerializer(JsonSerializer<Object> nullSerializer) {
+    delegate.assignNullSerializer(nullSerializer);
+  }
+
+  @Override
+  public void assignTypeSerializer(TypeSerializer typeSerializer) {
+    delegate.assignTypeSerializer(typeSerializer);
+  }
+
+  @Override
+  public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov)
+    throws Exception {
+    if (PropertyFilteringSerializerModifier.includesProperty(gen, getName())) {
+      delegate.serializeAsField(bean, gen, prov);
+    }
+  }
+
+  @Override
+  public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov)
+    throws Exception {
+    delegate.serializeAsElement(bean, gen, prov);
+  }
+
+  @Override
+  public void depositSchemaProperty(
+    JsonObjectFormatVisitor visitor,
+    SerializerProvider provider
+  ) throws JsonMappingException {
+    delegate.depositSchemaProperty(visitor, provider);
+  }
+}
@@ -0,0 +1,394 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.impl.ObjectIdWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link BeanSerializer} that serializes each bean with the subset of its properties that
+ * survive the {@link PropertyFilter} state of the object being written. The pruned property
+ * list is computed once per filter state and then reused for every bean of this type, so
+ * large collections don't pay a filter check per property per element. Filter states that stay
+ * hot past a threshold additionally switch to {@link DirectAccessBeanPropertyWriter}s spun up at
+ * runtime, for the properties that don't already read through accessors generated at compile
+ * time.
+ *
+ * <p>Beans with a {@code @JsonFilter} keep this serializer but are written through Jackson's
+ * per-property filtered path, and beans written as arrays or unwrapped into their parent are
+ * handed to Jackson's own {@code BeanAsArraySerializer} and {@code UnwrappingBeanSerializer}.
+ * None of these use the pruned property lists, their properties are still filtered one by one.
+ */
+public class PropertyFilteringBeanSerializer extends BeanSerializer {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient MetricRegistry metricRegistry;
+  private final int specializationThreshold;
+  private final int prunedPropertiesCacheSize;
+  private final transient PrunedPropertiesCache prunedProperties;
+  private final transient PrunedPropertiesCache prunedFilteredProperties;
+  private final transient ConcurrentHashMap<BeanPropertyWriter, BeanPropertyWriter> specializedProperties;
+  private final transient Meter hits;
+  private final transient Meter misses;
+  private final transient Meter evictions;
+  private final transient Timer buildTimer;
+  private final transient Meter specializations;
+
+  /**
+   * Keeps pruned properties for up to
+   * {@link PropertyFilteringSerializerModifier#DEFAULT_PRUNED_PROPERTIES_CACHE_SIZE} filter
+   * states.
+   */
+  public PropertyFilteringBeanSerializer(
+    BeanSerializerBase src,
+    MetricRegistry metricRegistry,
+    int specializationThreshold
+  ) {
+    this(
+      src,
+      metricRegistry,
+      specializationThreshold,
+      PropertyFilteringSerializerModifier.DEFAULT_PRUNED_PROPERTIES_CACHE_SIZE
+    );
+  }
+
+  /**
+   * @param specializationThreshold number of beans serialized with the same filter state after
+   *     which the surviving properties switch to direct accessors generated at runtime, 0 to
+   *     never switch
+   * @param prunedPropertiesCacheSize maximum number of filter states to keep pruned properties
+   *     for, 0 to prune them for every bean
+   */
+  public PropertyFilteringBeanSerializer(
+    BeanSerializerBase src,
+    MetricRegistry metricRegistry,
+    int specializationThreshold,
+    int prunedPropertiesCacheSize
+  ) {
+    super(src);
+    this.metricRegistry = metricRegistry;
+    this.specializationThreshold = specializationThreshold;
+    this.prunedPropertiesCacheSize = prunedPropertiesCacheSize;
+    this.specializedProperties = new ConcurrentHashMap<>();
+    this.hits = metricRegistry.meter(metricName("hits"));
+    this.misses = metricRegistry.meter(metricName("misses"));
+    this.evictions = metricRegistry.meter(metricName("evictions"));
+    this.buildTimer = metricRegistry.timer(metricName("build"));
+    this.specializations = metricRegistry.meter(metricName("specializations"));
+    this.prunedProperties = new PrunedPropertiesCache(prunedPropertiesCacheSize, evictions);
+    this.prunedFilteredProperties =
+      new PrunedPropertiesCache(prunedPropertiesCacheSize, evictions);
+
+    SizeGauge size = SizeGauge.forRegistry(metricRegistry);
+    if (size != null) {
+      size.add(prunedProperties);
+      size.add(prunedFilteredProperties);
+    }
+  }
+
+  @Override
+  protected BeanSerializerBase withByNameInclusion(
+    Set<String> toIgnore,
+    Set<String> toInclude
+  ) {
+    return new PropertyFilteringBeanSerializer(
+      super.withByNameInclusion(toIgnore, toInclude),
+      metricRegistry,
+      specializationThreshold,
+      prunedPropertiesCacheSize
+    );
+  }
+
+  @Override
+  public BeanSerializerBase withObjectIdWriter(ObjectIdWriter objectIdWriter) {
+    return new PropertyFilteringBeanSerializer(
+      super.withObjectIdWriter(objectIdWriter),
+      metricRegistry,
+      specializationThreshold,
+      prunedPropertiesCacheSize
+    );
+  }
+
+  @Override
+  public BeanSerializerBase withFilterId(Object filterId) {
+    return new PropertyFilteringBeanSerializer(
+      super.withFilterId(filterId),
+      metricRegistry,
+      specializationThreshold,
+      prunedPropertiesCacheSize
+    );
+  }
+
+  @Override
+  protected BeanSerializerBase withProperties(
+    BeanPropertyWriter[] properties,
+    BeanPropertyWriter[] filteredProperties
+  ) {
+    return new PropertyFilteringBeanSerializer(
+      super.withProperties(properties, filteredProperties),
+      metricRegistry,
+      specializationThreshold,
+      prunedPropertiesCacheSize
+    );
+  }
+
+  @Override
+  protected void serializeFields(Object bean, JsonGenerator gen, SerializerProvider provider)
+    throws IOException {
+    TokenFilter filter = PropertyFilteringSerializerModifier.currentObjectFilter(gen);
+    if (filter == null) {
+      // the whole object is excluded, nothing we write would make it through
+      return;
+    }
+
+    final PrunedProperties pruned;
+    if (_filteredProps != null && provider.getActiveView() != null) {
+      pruned = getPrunedProperties(prunedFilteredProperties, _filteredProps, filter);
+    } else {
+      pruned = getPrunedProperties(prunedProperties, _props, filter);
+    }
+
+    final BeanPropertyWriter[] props = pruned.properties;
+    if (!pruned.specialized && specializationThreshold > 0) {
+      recordUse(pruned);
+    }
+
+    int i = 0;
+    try {
+      for (final int len = props.length; i < len; ++i) {
+        props[i].serializeAsField(bean, gen, provider);
+      }
+      if (_anyGetterWriter != null) {
+        _anyGetterWriter.getAndSerialize(bean, gen, provider);
+      }
+    } catch (Exception e) {
+      String name = (i == props.length) ? "[anySetter]" : props[i].getName();
+      wrapAndThrow(provider, e, bean, name);
+    } catch (StackOverflowError e) {
+      JsonMappingException mapException = new JsonMappingException(
+        gen,
+        "Infinite recursion (StackOverflowError)",
+        e
+      );
+      String name = (i == props.length) ? "[anySetter]" : props[i].getName();
+      mapException.prependPath(bean, name);
+      throw mapException;
+    }
+  }
+
+  private PrunedProperties getPrunedProperties(
+    PrunedPropertiesCache cache,
+    BeanPropertyWriter[] properties,
+    TokenFilter filter
+  ) {
+    PrunedProperties pruned = cache.get(filter);
+    if (pruned != null) {
+      hits.mark();
+      return pruned;
+    }
+
+    misses.mark();
+    Timer.Context context = buildTimer.time();
+    try {
+      pruned = new PrunedProperties(prune(properties, filter));
+    } finally {
+      context.stop();
+    }
+
+    return cache.putIfAbsent(filter, pruned);
+  }
+
+  private void recordUse(PrunedProperties pruned) {
+    // exactly one caller sees the threshold being crossed
+    if (pruned.uses.incrementAndGet() != specializationThreshold) {
+      return;
+    }
+
+    BeanPropertyWriter[] specialized = new BeanPropertyWriter[pruned.properties.length];
+    for (int i = 0; i < specialized.length; i++) {
+      specialized[i] =
+        specializedProperties.computeIfAbsent(
+          pruned.properties[i],
+          DirectAccessBeanPropertyWriter::tryCreate
+        );
+    }
+
+    pruned.properties = specialized;
+    pruned.specialized = true;
+    specializations.mark();
+  }
+
+  private static BeanPropertyWriter[] prune(
+    BeanPropertyWriter[] properties,
+    TokenFilter filter
+  ) {
+    List<BeanPropertyWriter> pruned = new ArrayList<>(properties.length);
+    for (BeanPropertyWriter property : properties) {
+      if (property instanceof PropertyFilteringBeanPropertyWriter) {
+        if (filter.includeProperty(property.getName()) != null) {
+          // already checked, so skip the per-bean check in the wrapper
+          pruned.add(((PropertyFilteringBeanPropertyWriter) property).getDelegate());
+        }
+      } else if (property != null) {
+        // unwrapped, view-filtered or otherwise customized properties filter themselves
+        pruned.add(property);
+      }
+    }
+
+    return pruned.toArray(new BeanPropertyWriter[0]);
+  }
+
+  private static String metricName(String name) {
+    return MetricRegistry.name(PropertyFilteringBeanSerializer.class, name);
+  }
+
+  private static class PrunedProperties {
+
+    private final AtomicInteger uses = new AtomicInteger();
+    private volatile BeanPropertyWriter[] properties;
+    private volatile boolean specialized;
+    private volatile boolean used;
+
+    private PrunedProperties(BeanPropertyWriter[] properties) {
+      this.properties = properties;
+    }
+
+    private void markUsed() {
+      // avoid dirtying the cache line on every hit
+      if (!used) {
+        used = true;
+      }
+    }
+
+    private boolean clearUsed() {
+      boolean wasUsed = used;
+      if (wasUsed) {
+        used = false;
+      }
+      return wasUsed;
+    }
+  }
+
+  /**
+   * Pruned properties per filter state, up to a maximum number of them. Filters that
+   * aren't cached upstream show up as a new instance every time, so once full the oldest entry
+   * that hasn't been used since it was last considered for eviction is removed (second-chance,
+   * like {@link PropertyFilterCache}), and hot filter states keep their specializations.
+   */
+  private static class PrunedPropertiesCache {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<TokenFilter, PrunedProperties> entries;
+    private final Queue<TokenFilter> evictionQueue;
+    private final Meter evictions;
+
+    private PrunedPropertiesCache(int maxSize, Meter evictions) {
+      this.maxSize = maxSize;
+      this.entries = new ConcurrentHashMap<>();
+      this.evictionQueue = new ConcurrentLinkedQueue<>();
+      this.evictions = evictions;
+    }
+
+    private PrunedProperties get(TokenFilter filter) {
+      PrunedProperties pruned = entries.get(filter);
+      if (pruned != null) {
+        pruned.markUsed();
+      }
+      return pruned;
+    }
+
+    /**
+     * Caches {@code pruned} unless another thread got there first, and returns the cached entry.
+     */
+    private PrunedProperties putIfAbsent(TokenFilter filter, PrunedProperties pruned) {
+      if (maxSize <= 0) {
+        return pruned;
+      }
+
+      PrunedProperties existing = entries.putIfAbsent(filter, pruned);
+      if (existing != null) {
+        return existing;
+      }
+
+      evictionQueue.add(filter);
+      evictIfNecessary();
+      return pruned;
+    }
+
+    private int size() {
+      return entries.size();
+    }
+
+    private void evictIfNecessary() {
+      while (entries.size() > maxSize) {
+        TokenFilter filter = evictionQueue.poll();
+        if (filter == null) {
+          return;
+        }
+
+        PrunedProperties pruned = entries.get(filter);
+        if (pruned == null) {
+          continue;
+        }
+
+        if (pruned.clearUsed()) {
+          evictionQueue.add(filter);
+        } else if (entries.remove(filter, pruned)) {
+          evictions.mark();
+        }
+      }
+    }
+  }
+
+  /**
+   * The number of pruned property lists cached by all serializers reporting to a registry, read
+   * from the caches themselves. Serializers Jackson has let go of drop out along with them.
+   */
+  private static class SizeGauge implements Gauge<Integer> {
+
+    private final Set<PrunedPropertiesCache> caches = Collections.newSetFromMap(
+      new WeakHashMap<>()
+    );
+
+    /**
+     * The gauge registered with {@code metricRegistry}, or {@code null} if something else is
+     * registered under its name.
+     */
+    private static SizeGauge forRegistry(MetricRegistry metricRegistry) {
+      Gauge<?> gauge = metricRegistry.gauge(metricName("size"), SizeGauge::new);
+      return gauge instanceof SizeGauge ? (SizeGauge) gauge : null;
+    }
+
+    private synchronized void add(PrunedPropertiesCache cache) {
+      caches.add(cache);
+    }
+
+    @Override
+    public synchronized Integer getValue() {
+      int size = 0;
+      for (PrunedPropertiesCache cache : caches) {
+        size += cache.size();
+      }
+      return size;
+    }
+  }
+}
@@ -0,0 +1,305 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.jaxrs.json.JsonEndpointConfig;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+/**
+ * Everything {@link PropertyFilteringMessageBodyWriter} needs to know about a
+ * {@link PropertyFiltering} resource method, resolved once when the method is deployed (see
+ * {@link PropertyFilteringFeature}). As a request filter it attaches itself to each matching
+ * request under {@link #PROPERTY_NAME}, and the request's compiled filter under
+ * {@link PropertyFilter#PROPERTY_NAME} for the resource method to use. As a response filter it
+ * makes sure responses of asynchronous methods ({@code CompletionStage} return type or
+ * {@code @Suspended AsyncResponse} parameter) are written with the method's annotations once
+ * they complete, so they get filtered like any other.
+ */
+public class PropertyFilteringBinding
+  implements ContainerRequestFilter, ContainerResponseFilter {
+
+  public static final String PROPERTY_NAME = PropertyFilteringBinding.class.getName();
+
+  private final PropertyFiltering annotation;
+  private final Annotation[] annotations;
+  private final boolean async;
+  private final Supplier<PropertyFilterCache> filterCache;
+  private final ConcurrentHashMap<ObjectMapper, ObjectWriter> writers;
+  private final ConcurrentHashMap<Key, Boolean> filteredTypes;
+  private final ConcurrentHashMap<Key, Boolean> writeableTypes;
+
+  public PropertyFilteringBinding(PropertyFiltering annotation, Annotation[] annotations) {
+    this(annotation, annotations, false);
+  }
+
+  public PropertyFilteringBinding(
+    PropertyFiltering annotation,
+    Annotation[] annotations,
+    boolean async
+  ) {
+    this(annotation, annotations, async, () -> null);
+  }
+
+  /**
+   * @param filterCache the cache to compile request filters with, {@code null} to compile a new
+   *     filter for every request
+   */
+  public PropertyFilteringBinding(
+    PropertyFiltering annotation,
+    Annotation[] annotations,
+    boolean async,
+    PropertyFilterCache filterCache
+  ) {
+    this(annotation, annotations, async, () -> filterCache);
+  }
+
+  private PropertyFilteringBinding(
+    PropertyFiltering annotation,
+    Annotation[] annotations,
+    boolean async,
+    Supplier<PropertyFilterCache> filterCache
+  ) {
+    this.annotation = annotation;
+    this.annotations = annotations;
+    this.async = async;
+    this.filterCache = filterCache;
+    this.writers = new ConcurrentHashMap<>();
+    this.filteredTypes = new ConcurrentHashMap<>();
+    this.writeableTypes = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the binding for {@code method}, or {@code null} if it isn't annotated with
+   * {@link PropertyFiltering}.
+   */
+  public static PropertyFilteringBinding forMethod(Method method) {
+    return forMethod(method, () -> null);
+  }
+
+  /**
+   * Returns the binding for {@code method} that compiles request filters with the cache
+   * {@code filterCache} supplies at the time, or {@code null} if the method isn't annotated
+   * with {@link PropertyFiltering}.
+   */
+  static PropertyFilteringBinding forMethod(
+    Method method,
+    Supplier<PropertyFilterCache> filterCache
+  ) {
+    PropertyFiltering annotation = method.getAnnotation(PropertyFiltering.class);
+    if (annotation == null) {
+      return null;
+    }
+
+    return new PropertyFilteringBinding(
+      annotation,
+      method.getAnnotations(),
+      isAsync(method),
+      filterCache
+    );
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    requestContext.setProperty(PROPERTY_NAME, this);
+    requestContext.setProperty(
+      PropertyFilter.PROPERTY_NAME,
+      buildFilter(requestContext.getUriInfo(), filterCache.get())
+    );
+  }
+
+  @Override
+  public void filter(
+    ContainerRequestContext requestContext,
+    ContainerResponseContext responseContext
+  ) {
+    // a resumed response can reach the writers without any annotations, in which case it
+    // would neither be filtered nor get the method's @JsonView
+    if (
+      async &&
+      responseContext.hasEntity() &&
+      isEmpty(responseContext.getEntityAnnotations()) &&
+      responseContext.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL
+    ) {
+      responseContext.setEntity(
+        responseContext.getEntity(),
+        annotations,
+        responseContext.getMediaType()
+      );
+    }
+  }
+
+  public PropertyFiltering getAnnotation() {
+    return annotation;
+  }
+
+  /**
+   * Whether this binding describes an entity written with {@code annotations}, which holds for
+   * the resource method's own response. Annotation instances are shared, so this is an identity
+   * check.
+   */
+  public boolean appliesTo(Annotation[] annotations) {
+    if (annotations == this.annotations) {
+      return true;
+    }
+
+    if (annotations != null) {
+      for (Annotation annotation : annotations) {
+        if (annotation == this.annotation) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  public PropertyFilter buildFilter(UriInfo uriInfo, PropertyFilterCache cache) {
+    return PropertyFilterBuilder
+      .newBuilder(uriInfo)
+      .usingCache(cache)
+      .forAnnotation(annotation);
+  }
+
+  /**
+   * The writer for {@code mapper} with this method's {@code @JsonView} and other endpoint
+   * annotations applied, prepared the first time it's needed.
+   */
+  public ObjectWriter getWriter(ObjectMapper mapper) {
+    ObjectWriter writer = writers.get(mapper);
+    if (writer == null) {
+      writer =
+        writers.computeIfAbsent(
+          mapper,
+          m -> JsonEndpointConfig.forWriting(m.writer(), annotations, null).getWriter()
+        );
+    }
+
+    return writer;
+  }
+
+  /**
+   * Whether entities of {@code type} returned by this method as {@code mediaType} are filtered,
+   * as decided by {@code filtered} the first time that combination comes up.
+   */
+  boolean isFiltered(
+    Class<?> type,
+    Type genericType,
+    MediaType mediaType,
+    BooleanSupplier filtered
+  ) {
+    return test(filteredTypes, new Key(type, genericType, mediaType), filtered);
+  }
+
+  /**
+   * Whether entities of {@code type} returned by this method as {@code mediaType} can be
+   * written, as decided by {@code writeable} the first time that combination comes up.
+   */
+  boolean isWriteable(
+    Class<?> type,
+    Type genericType,
+    MediaType mediaType,
+    BooleanSupplier writeable
+  ) {
+    return test(writeableTypes, new Key(type, genericType, mediaType), writeable);
+  }
+
+  private static boolean test(
+    ConcurrentHashMap<Key, Boolean> results,
+    Key key,
+    BooleanSupplier supplier
+  ) {
+    Boolean result = results.get(key);
+    if (result == null) {
+      result = results.computeIfAbsent(key, k -> supplier.getAsBoolean());
+    }
+
+    return result;
+  }
+
+  /**
+   * Whether the response of {@code method} is produced asynchronously, after the method has
+   * returned.
+   */
+  static boolean isAsync(Method method) {
+    if (CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+      return true;
+    }
+
+    for (Annotation[] parameterAnnotations : method.getParameterAnnotations()) {
+      for (Annotation parameterAnnotation : parameterAnnotations) {
+        if (parameterAnnotation.annotationType() == Suspended.class) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean isEmpty(Annotation[] annotations) {
+    return annotations == null || annotations.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "PropertyFilteringBinding[", "]")
+      .add("annotation=" + annotation)
+      .add("async=" + async)
+      .toString();
+  }
+
+  /**
+   * Everything the writer gets asked about an entity besides the method's annotations, which
+   * are the same for every response of a binding.
+   */
+  private static final class Key {
+
+    private final Class<?> type;
+    private final Type genericType;
+    private final MediaType mediaType;
+
+    private Key(Class<?> type, Type genericType, MediaType mediaType) {
+      this.type = type;
+      this.genericType = genericType;
+      this.mediaType = mediaType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+
+      Key other = (Key) o;
+      return (
+        type == other.type &&
+        Objects.equals(genericType, other.genericType) &&
+        mediaType.equals(other.mediaType)
+      );
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * type.hashCode() + Objects.hashCode(genericType)) + mediaType.hashCode();
+    }
+  }
+}
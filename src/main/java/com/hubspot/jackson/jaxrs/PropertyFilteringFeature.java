@@ -0,0 +1,56 @@
+package com.hubspot.jackson.jaxrs;
+
+import javax.ws.rs.container.DynamicFeature;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.FeatureContext;
+
+/**
+ * Resolves {@link PropertyFiltering} once per resource method at deployment time and binds a
+ * {@link PropertyFilteringBinding} to it, so {@link PropertyFilteringMessageBodyWriter} doesn't
+ * have to scan annotations and prepare an {@code ObjectWriter} on every request. Register it
+ * next to the writer; without it the writer resolves everything per request as before. It isn't
+ * annotated with {@code @Provider}, so provider scanning won't pick it up.
+ *
+ * <p>The filter of each request is compiled before the resource method runs and is available
+ * to it as the request property {@link PropertyFilter#PROPERTY_NAME}, so that resources can
+ * load only what was asked for. Construct the feature with the registered writer to compile
+ * them with its filter cache, as configured by
+ * {@link PropertyFilteringMessageBodyWriter#getFilterCacheSize()} and
+ * {@link PropertyFilteringMessageBodyWriter#getMetricRegistry()}.
+ */
+public class PropertyFilteringFeature implements DynamicFeature {
+
+  private final PropertyFilteringMessageBodyWriter writer;
+
+  /**
+   * Compiles a new filter for every request.
+   */
+  public PropertyFilteringFeature() {
+    this(null);
+  }
+
+  /**
+   * Compiles request filters with the filter cache of {@code writer}, the writer registered
+   * next to this feature. The cache is the writer's from the first request on, whether or not
+   * the writer gets to write that request's response.
+   */
+  public PropertyFilteringFeature(PropertyFilteringMessageBodyWriter writer) {
+    this.writer = writer;
+  }
+
+  @Override
+  public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+    if (resourceInfo.getResourceMethod() == null) {
+      return;
+    }
+
+    PropertyFilteringBinding binding = PropertyFilteringBinding.forMethod(
+      resourceInfo.getResourceMethod(),
+      // the writer's context isn't injected yet, so its cache is created on the first request
+      writer == null ? () -> null : writer::getFilterCache
+    );
+    if (binding != null) {
+      context.register(binding);
+    }
+  }
+}
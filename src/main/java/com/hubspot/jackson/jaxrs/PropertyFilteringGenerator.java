@@ -0,0 +1,473 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Writes the same output as a {@link FilteringGeneratorDelegate} applying a
+ * {@link PropertyFilter} with {@link TokenFilter.Inclusion#INCLUDE_NON_NULL} and multiple
+ * matches allowed, for a fraction of the work per token. Our filters only ever decide per
+ * property name, so each object or array that is partly filtered just pushes its filter on a
+ * preallocated stack, and a subtree that is entirely written or entirely dropped is tracked by
+ * a single nesting counter: inside it every call goes straight to the underlying generator or
+ * nowhere, without looking at the filter again. Field names given as {@link SerializableString},
+ * which is how bean properties are written, are looked up by their {@code String} value, whose
+ * hash code is cached.
+ *
+ * <p>The output context is the underlying generator's, so within an excluded subtree it is the
+ * one of the closest enclosing value that is written.
+ */
+final class PropertyFilteringGenerator extends JsonGeneratorDelegate {
+
+  private final TokenFilter rootFilter;
+  // filters of the enclosing, partly filtered objects and arrays
+  private TokenFilter[] filters;
+  private int depth;
+  // nesting within a fully included (itemFilter INCLUDE_ALL) or excluded (null) subtree
+  private int subtreeDepth;
+  // filter of the next value: INCLUDE_ALL, null if excluded, or the filter for its contents
+  private TokenFilter itemFilter;
+
+  PropertyFilteringGenerator(JsonGenerator delegate, PropertyFilter filter) {
+    // values written through the codec have to come back through this generator
+    super(delegate, false);
+    this.rootFilter = filter.getCompiledFilter();
+    this.filters = new TokenFilter[16];
+    this.itemFilter = rootFilter;
+  }
+
+  /**
+   * The filter that applies to the properties of the object currently being written, see
+   * {@link PropertyFilteringSerializerModifier#currentObjectFilter(JsonGenerator)}.
+   */
+  TokenFilter currentObjectFilter() {
+    return subtreeDepth > 0 ? itemFilter : containerFilter();
+  }
+
+  private TokenFilter containerFilter() {
+    return depth == 0 ? rootFilter : filters[depth - 1];
+  }
+
+  /**
+   * Enters an object or array, returning whether its start has to be written.
+   */
+  private boolean enter() {
+    if (subtreeDepth > 0 || itemFilter == null || itemFilter == TokenFilter.INCLUDE_ALL) {
+      subtreeDepth++;
+      return itemFilter != null;
+    }
+
+    if (depth == filters.length) {
+      filters = Arrays.copyOf(filters, depth * 2);
+    }
+    filters[depth++] = itemFilter;
+    return true;
+  }
+
+  /**
+   * Leaves an object or array, returning whether its end has to be written.
+   */
+  private boolean exit() {
+    if (subtreeDepth > 0) {
+      boolean written = itemFilter != null;
+      if (--subtreeDepth == 0) {
+        itemFilter = containerFilter();
+      }
+      return written;
+    }
+
+    filters[--depth] = null;
+    itemFilter = containerFilter();
+    return true;
+  }
+
+  /**
+   * Moves on to the value of the property {@code name}, returning whether to write the name.
+   */
+  private boolean includeField(String name) {
+    if (subtreeDepth > 0) {
+      return itemFilter != null;
+    }
+
+    itemFilter = containerFilter().includeProperty(name);
+    return itemFilter != null;
+  }
+
+  @Override
+  public void writeStartArray() throws IOException {
+    if (enter()) {
+      delegate.writeStartArray();
+    }
+  }
+
+  @Override
+  @SuppressWarnings("deprecation")
+  public void writeStartArray(int size) throws IOException {
+    if (enter()) {
+      delegate.writeStartArray(size);
+    }
+  }
+
+  @Override
+  public void writeStartArray(Object forValue) throws IOException {
+    if (enter()) {
+      delegate.writeStartArray(forValue);
+    }
+  }
+
+  @Override
+  public void writeStartArray(Object forValue, int size) throws IOException {
+    if (enter()) {
+      delegate.writeStartArray(forValue, size);
+    }
+  }
+
+  @Override
+  public void writeEndArray() throws IOException {
+    if (exit()) {
+      delegate.writeEndArray();
+    }
+  }
+
+  @Override
+  public void writeStartObject() throws IOException {
+    if (enter()) {
+      delegate.writeStartObject();
+    }
+  }
+
+  @Override
+  public void writeStartObject(Object forValue) throws IOException {
+    if (enter()) {
+      delegate.writeStartObject(forValue);
+    }
+  }
+
+  @Override
+  public void writeStartObject(Object forValue, int size) throws IOException {
+    if (enter()) {
+      delegate.writeStartObject(forValue, size);
+    }
+  }
+
+  @Override
+  public void writeEndObject() throws IOException {
+    if (exit()) {
+      delegate.writeEndObject();
+    }
+  }
+
+  @Override
+  public void writeFieldName(String name) throws IOException {
+    if (includeField(name)) {
+      delegate.writeFieldName(name);
+    }
+  }
+
+  @Override
+  public void writeFieldName(SerializableString name) throws IOException {
+    if (includeField(name.getValue())) {
+      delegate.writeFieldName(name);
+    }
+  }
+
+  @Override
+  public void writeFieldId(long id) throws IOException {
+    writeFieldName(Long.toString(id));
+  }
+
+  @Override
+  public void writeArray(int[] array, int offset, int length) throws IOException {
+    if (isPassThrough()) {
+      delegate.writeArray(array, offset, length);
+    } else {
+      writeStartArray(array, length);
+      for (int i = offset, end = offset + length; i < end; i++) {
+        writeNumber(array[i]);
+      }
+      writeEndArray();
+    }
+  }
+
+  @Override
+  public void writeArray(long[] array, int offset, int length) throws IOException {
+    if (isPassThrough()) {
+      delegate.writeArray(array, offset, length);
+    } else {
+      writeStartArray(array, length);
+      for (int i = offset, end = offset + length; i < end; i++) {
+        writeNumber(array[i]);
+      }
+      writeEndArray();
+    }
+  }
+
+  @Override
+  public void writeArray(double[] array, int offset, int length) throws IOException {
+    if (isPassThrough()) {
+      delegate.writeArray(array, offset, length);
+    } else {
+      writeStartArray(array, length);
+      for (int i = offset, end = offset + length; i < end; i++) {
+        writeNumber(array[i]);
+      }
+      writeEndArray();
+    }
+  }
+
+  @Override
+  public void writeArray(String[] array, int offset, int length) throws IOException {
+    if (isPassThrough()) {
+      delegate.writeArray(array, offset, length);
+    } else {
+      writeStartArray(array, length);
+      for (int i = offset, end = offset + length; i < end; i++) {
+        writeString(array[i]);
+      }
+      writeEndArray();
+    }
+  }
+
+  private boolean isPassThrough() {
+    return itemFilter == TokenFilter.INCLUDE_ALL;
+  }
+
+  @Override
+  public void writeString(String text) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeString(text);
+    }
+  }
+
+  @Override
+  public void writeString(char[] text, int offset, int len) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeString(text, offset, len);
+    }
+  }
+
+  @Override
+  public void writeString(SerializableString text) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeString(text);
+    }
+  }
+
+  @Override
+  public void writeString(Reader reader, int len) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeString(reader, len);
+    }
+  }
+
+  @Override
+  public void writeRawUTF8String(byte[] text, int offset, int length) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRawUTF8String(text, offset, length);
+    }
+  }
+
+  @Override
+  public void writeUTF8String(byte[] text, int offset, int length) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeUTF8String(text, offset, length);
+    }
+  }
+
+  @Override
+  public void writeRaw(String text) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRaw(text);
+    }
+  }
+
+  @Override
+  public void writeRaw(String text, int offset, int len) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRaw(text, offset, len);
+    }
+  }
+
+  @Override
+  public void writeRaw(SerializableString raw) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRaw(raw);
+    }
+  }
+
+  @Override
+  public void writeRaw(char[] text, int offset, int len) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRaw(text, offset, len);
+    }
+  }
+
+  @Override
+  public void writeRaw(char c) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRaw(c);
+    }
+  }
+
+  @Override
+  public void writeRawValue(String text) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRawValue(text);
+    }
+  }
+
+  @Override
+  public void writeRawValue(String text, int offset, int len) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRawValue(text, offset, len);
+    }
+  }
+
+  @Override
+  public void writeRawValue(char[] text, int offset, int len) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeRawValue(text, offset, len);
+    }
+  }
+
+  @Override
+  public void writeBinary(Base64Variant b64variant, byte[] data, int offset, int len)
+    throws IOException {
+    if (itemFilter != null) {
+      delegate.writeBinary(b64variant, data, offset, len);
+    }
+  }
+
+  @Override
+  public int writeBinary(Base64Variant b64variant, InputStream data, int dataLength)
+    throws IOException {
+    if (itemFilter != null) {
+      return delegate.writeBinary(b64variant, data, dataLength);
+    }
+
+    return -1;
+  }
+
+  @Override
+  public void writeNumber(short v) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(v);
+    }
+  }
+
+  @Override
+  public void writeNumber(int v) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(v);
+    }
+  }
+
+  @Override
+  public void writeNumber(long v) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(v);
+    }
+  }
+
+  @Override
+  public void writeNumber(BigInteger v) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(v);
+    }
+  }
+
+  @Override
+  public void writeNumber(double v) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(v);
+    }
+  }
+
+  @Override
+  public void writeNumber(float v) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(v);
+    }
+  }
+
+  @Override
+  public void writeNumber(BigDecimal v) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(v);
+    }
+  }
+
+  @Override
+  public void writeNumber(String encodedValue) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(encodedValue);
+    }
+  }
+
+  @Override
+  public void writeNumber(char[] encodedValueBuffer, int offset, int length)
+    throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNumber(encodedValueBuffer, offset, length);
+    }
+  }
+
+  @Override
+  public void writeBoolean(boolean state) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeBoolean(state);
+    }
+  }
+
+  @Override
+  public void writeNull() throws IOException {
+    if (itemFilter != null) {
+      delegate.writeNull();
+    }
+  }
+
+  @Override
+  public void writeOmittedField(String fieldName) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeOmittedField(fieldName);
+    }
+  }
+
+  @Override
+  public void writeObjectId(Object id) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeObjectId(id);
+    }
+  }
+
+  @Override
+  public void writeObjectRef(Object id) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeObjectRef(id);
+    }
+  }
+
+  @Override
+  public void writeTypeId(Object id) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeTypeId(id);
+    }
+  }
+
+  @Override
+  public void writeEmbeddedObject(Object object) throws IOException {
+    if (itemFilter != null) {
+      delegate.writeEmbeddedObject(object);
+    }
+  }
+}
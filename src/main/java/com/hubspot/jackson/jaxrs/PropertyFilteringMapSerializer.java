@@ -0,0 +1,115 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContainerSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.MapSerializer;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Wraps a {@link MapSerializer} so that, when the {@link PropertyFilter} state of the map being
+ * written includes only a few named keys, just those keys are looked up and handed to the
+ * original serializer instead of every entry (see {@link DirectKeyLookup}). Everything else,
+ * including maps written with type information, goes to the original serializer untouched.
+ */
+public class PropertyFilteringMapSerializer
+  extends ContainerSerializer<Map<?, ?>>
+  implements ContextualSerializer {
+
+  private static final long serialVersionUID = 1L;
+
+  private final MapSerializer delegate;
+
+  public PropertyFilteringMapSerializer(MapSerializer delegate) {
+    super(delegate.handledType(), false);
+    this.delegate = delegate;
+  }
+
+  @Override
+  public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+    throws JsonMappingException {
+    JsonSerializer<?> contextual = delegate.createContextual(provider, property);
+    if (contextual instanceof MapSerializer) {
+      return rewrap((MapSerializer) contextual);
+    } else {
+      return contextual;
+    }
+  }
+
+  @Override
+  protected ContainerSerializer<?> _withValueTypeSerializer(TypeSerializer typeSer) {
+    // bean properties with @JsonTypeInfo on their map values are resolved through this
+    return rewrap(delegate._withValueTypeSerializer(typeSer));
+  }
+
+  @Override
+  public JavaType getContentType() {
+    return delegate.getContentType();
+  }
+
+  @Override
+  public JsonSerializer<?> getContentSerializer() {
+    return delegate.getContentSerializer();
+  }
+
+  @Override
+  public boolean isEmpty(SerializerProvider provider, Map<?, ?> value) {
+    return delegate.isEmpty(provider, value);
+  }
+
+  @Override
+  public boolean hasSingleElement(Map<?, ?> value) {
+    return delegate.hasSingleElement(value);
+  }
+
+  @Override
+  public boolean usesObjectId() {
+    return delegate.usesObjectId();
+  }
+
+  @Override
+  public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType typeHint)
+    throws JsonMappingException {
+    delegate.acceptJsonFormatVisitor(visitor, typeHint);
+  }
+
+  @Override
+  public void serialize(Map<?, ?> value, JsonGenerator gen, SerializerProvider provider)
+    throws IOException {
+    gen.writeStartObject(value);
+
+    // only now is the filter for this map's entries the current one
+    String[] names = PropertyFilter.includedNames(
+      PropertyFilteringSerializerModifier.currentObjectFilter(gen)
+    );
+    if (DirectKeyLookup.isCheaper(value.size(), names) && DirectKeyLookup.hasStringKeys(value)) {
+      delegate.serializeWithoutTypeInfo(DirectKeyLookup.select(value, names), gen, provider);
+    } else {
+      delegate.serializeWithoutTypeInfo(value, gen, provider);
+    }
+
+    gen.writeEndObject();
+  }
+
+  @Override
+  public void serializeWithType(
+    Map<?, ?> value,
+    JsonGenerator gen,
+    SerializerProvider provider,
+    TypeSerializer typeSer
+  ) throws IOException {
+    delegate.serializeWithType(value, gen, provider, typeSer);
+  }
+
+  private PropertyFilteringMapSerializer rewrap(MapSerializer serializer) {
+    return serializer == delegate ? this : new PropertyFilteringMapSerializer(serializer);
+  }
+}
@@ -4,32 +4,64 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SharedMetricRegistries;
 import com.codahale.metrics.Timer;
 import com.codahale.metrics.servlets.MetricsServlet;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
-import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.std.MapSerializer;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 import com.fasterxml.jackson.jaxrs.json.JsonEndpointConfig;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
 
 @Provider
-@Produces(MediaType.APPLICATION_JSON)
+@Produces(
+  {
+    MediaType.APPLICATION_JSON,
+    PropertyFilteringMessageBodyWriter.APPLICATION_NDJSON,
+    PropertyFilteringMessageBodyWriter.APPLICATION_JSONL,
+  }
+)
 public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Object> {
 
+  /**
+   * JSON Lines media types: every element of a collection, array or stream entity is written as
+   * a filtered JSON document on its own line.
+   */
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+  public static final String APPLICATION_JSONL = "application/jsonl";
+
+  private static final byte[] EMPTY_OBJECT = { '{', '}' };
+
   @Context
   Application application;
 
@@ -39,7 +71,20 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
   @Context
   ServletContext servletContext;
 
+  @Context
+  HttpServletRequest request;
+
+  @Context
+  HttpHeaders requestHeaders;
+
   private volatile JacksonJsonProvider delegate;
+  private volatile PropertyFilterCache filterCache;
+  private volatile ObjectWriterCache writerCache;
+  private volatile ResolvedFilterCache resolvedFilterCache;
+  private volatile ResponseBufferPool responseBufferPool;
+  private volatile ResponseCache responseCache;
+  private final ConcurrentHashMap<ObjectMapper, ObjectMapper> serializerFilteringMappers =
+    new ConcurrentHashMap<>();
 
   @Override
   public boolean isWriteable(
@@ -48,11 +93,53 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
     Annotation[] annotations,
     MediaType mediaType
   ) {
-    return (
-      isJsonType(mediaType) &&
-      filteringEnabled(type, genericType, annotations, mediaType) &&
-      getJsonProvider().isWriteable(type, genericType, annotations, mediaType)
-    );
+    boolean lines = isJsonLinesType(mediaType);
+    if (!lines && !isJsonType(mediaType)) {
+      return false;
+    }
+
+    PropertyFilteringBinding binding = findBinding(annotations);
+    if (binding != null) {
+      // the method's annotations are already resolved, its entity types are checked once each
+      if (
+        !binding.isFiltered(
+          type,
+          genericType,
+          mediaType,
+          () -> filteringEnabled(type, genericType, annotations, mediaType)
+        )
+      ) {
+        return false;
+      }
+
+      return lines
+        ? !RawJsonWriter.isRawJson(type)
+        : binding.isWriteable(
+          type,
+          genericType,
+          mediaType,
+          () -> isWriteableType(type, genericType, annotations, mediaType)
+        );
+    }
+
+    if (!filteringEnabled(type, genericType, annotations, mediaType)) {
+      return false;
+    }
+
+    return lines
+      ? !RawJsonWriter.isRawJson(type)
+      : isWriteableType(type, genericType, annotations, mediaType);
+  }
+
+  private boolean isWriteableType(
+    Class<?> type,
+    Type genericType,
+    Annotation[] annotations,
+    MediaType mediaType
+  ) {
+    return RawJsonWriter.isRawJson(type)
+      ? rawJsonFilteringEnabled()
+      : getJsonProvider().isWriteable(type, genericType, annotations, mediaType);
   }
 
   @Override
@@ -76,30 +163,154 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
     MultivaluedMap<String, Object> httpHeaders,
     OutputStream os
   ) throws IOException {
-    PropertyFiltering annotation = findPropertyFiltering(annotations);
-    PropertyFilter propertyFilter = PropertyFilterBuilder
-      .newBuilder(uriInfo)
-      .forAnnotation(annotation);
+    PropertyFilteringBinding binding = findBinding(annotations);
+    PropertyFiltering propertyFiltering;
+    PropertyFilter propertyFilter;
+    if (binding == null) {
+      propertyFiltering = findPropertyFiltering(annotations);
+      propertyFilter =
+        PropertyFilterBuilder
+          .newBuilder(uriInfo)
+          .usingCache(getFilterCache())
+          .forAnnotation(propertyFiltering);
+    } else {
+      propertyFiltering = binding.getAnnotation();
+      propertyFilter = findPropertyFilter();
+      if (propertyFilter == null) {
+        propertyFilter = binding.buildFilter(uriInfo, getFilterCache());
+      }
+    }
+
+    if (isJsonLinesType(mediaType)) {
+      writeStreaming(o, type, annotations, binding, propertyFilter, os, true);
+      return;
+    }
+
+    if (RawJsonWriter.isRawJson(type)) {
+      writeRawJson(o, type, mediaType, propertyFilter, os);
+      return;
+    }
+
+    if (isStreaming(type)) {
+      writeStreaming(o, type, annotations, binding, propertyFilter, os, false);
+      return;
+    }
 
-    if (!propertyFilter.hasFilters()) {
+    if (propertyFilter.includesAll()) {
       write(o, type, genericType, annotations, mediaType, httpHeaders, os);
       return;
     }
 
     Timer timer = getTimer();
     Timer.Context context = timer.time();
+    ResponseBufferPool.Buffer buffer = responseBufferingEnabled()
+      ? getResponseBufferPool().newBuffer(os)
+      : null;
+    OutputStream out = buffer == null ? os : buffer;
 
     try {
-      ObjectMapper mapper = getJsonProvider().locateMapper(type, mediaType);
-      ObjectWriter writer = JsonEndpointConfig
-        .forWriting(mapper.writer(), annotations, null)
-        .getWriter();
-      writeValue(writer, propertyFilter, o, os);
+      ObjectMapper mapper = locateMapper(type, mediaType);
+      ObjectWriter writer = getWriter(mapper, annotations, binding);
+      if (typeResolutionEnabled()) {
+        propertyFilter =
+          resolveFilter(propertyFilter, mapper, writer, genericType == null ? type : genericType);
+      }
+
+      Object entityKey = getEntityCacheKey(o);
+      if (entityKey == null) {
+        writeFiltered(o, mapper, writer, propertyFiltering, propertyFilter, out);
+      } else {
+        writeCached(
+          o,
+          entityKey,
+          mapper,
+          writer,
+          propertyFiltering,
+          propertyFilter,
+          httpHeaders,
+          out
+        );
+      }
+
+      if (buffer != null) {
+        buffer.finish(httpHeaders);
+      }
     } finally {
+      if (buffer != null) {
+        buffer.release();
+      }
       context.stop();
     }
   }
 
+  private void writeFiltered(
+    Object o,
+    ObjectMapper mapper,
+    ObjectWriter writer,
+    PropertyFiltering propertyFiltering,
+    PropertyFilter propertyFilter,
+    OutputStream os
+  ) throws IOException {
+    if (propertyFilter.excludesAll() && writesObject(mapper, o)) {
+      // not a single property would make it through, no need to serialize anything
+      os.write(EMPTY_OBJECT);
+    } else if (
+      isParallel(propertyFiltering, o) && ChunkedCollectionWriter.supports(mapper, writer, o)
+    ) {
+      new ChunkedCollectionWriter(
+        writer,
+        propertyFilter,
+        getParallelSerializationExecutor(),
+        getParallelChunkSize(),
+        getMaxChunksInFlight()
+      )
+        .write((Collection<?>) o, os);
+    } else if (o instanceof Map && writesPlainMap(mapper, o)) {
+      // a few keys out of a huge map: hand the generator just those
+      writeValue(writer, propertyFilter, DirectKeyLookup.select(o, propertyFilter), os);
+    } else {
+      writeValue(writer, propertyFilter, o, os);
+    }
+  }
+
+  private void writeCached(
+    Object o,
+    Object entityKey,
+    ObjectMapper mapper,
+    ObjectWriter writer,
+    PropertyFiltering propertyFiltering,
+    PropertyFilter propertyFilter,
+    MultivaluedMap<String, Object> httpHeaders,
+    OutputStream os
+  ) throws IOException {
+    ResponseCache cache = getResponseCache();
+    ResponseCache.CachedResponse response =
+      cache.get(o.getClass(), entityKey, propertyFilter, writer);
+    boolean cached = response != null;
+    if (!cached) {
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      writeFiltered(o, mapper, writer, propertyFiltering, propertyFilter, content);
+      response =
+        cache.put(o.getClass(), entityKey, propertyFilter, writer, content.toByteArray());
+    }
+
+    if (
+      requestHeaders != null &&
+      response.matches(requestHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH))
+    ) {
+      cache.markNotModified();
+      // nothing has been written yet, so the runtime can still answer with this instead
+      throw new WebApplicationException(Response.notModified(response.getEntityTag()).build());
+    }
+
+    httpHeaders.putSingle(HttpHeaders.ETAG, response.getEntityTag());
+    if (cached) {
+      cache.write(response, os);
+    } else {
+      response.writeTo(os);
+    }
+  }
+
   protected Timer getTimer() {
     return getMetricRegistry()
       .timer(MetricRegistry.name(PropertyFilteringMessageBodyWriter.class, "filter"));
@@ -112,6 +323,193 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
       .orElseGet(() -> SharedMetricRegistries.getOrCreate("com.hubspot"));
   }
 
+  /**
+   * Maximum number of compiled filters to keep around, keyed by their canonical property list.
+   * Return 0 to build a new filter for every request.
+   */
+  protected int getFilterCacheSize() {
+    return 1000;
+  }
+
+  /**
+   * Maximum number of prepared {@code ObjectWriter}s to keep per mapper, keyed by the identity of
+   * the annotation array they were prepared for. Return 0 to prepare a writer for every request.
+   */
+  protected int getWriterCacheSize() {
+    return 1000;
+  }
+
+  /**
+   * When enabled, {@code byte[]}, {@code String} and {@code InputStream} entities returned from
+   * {@link PropertyFiltering} endpoints are treated as already serialized JSON and filtered while
+   * being streamed through, instead of being left to other writers unfiltered. Runtimes only
+   * hand such entities to this writer through a {@link RawJsonMessageBodyWriter}, which has to
+   * be registered explicitly, so this only takes effect for applications that opted in.
+   */
+  protected boolean rawJsonFilteringEnabled() {
+    return true;
+  }
+
+  /**
+   * When enabled, {@code byte[]} and {@code String} raw JSON entities are filtered by scanning
+   * their bytes instead of tokenizing them, which is much faster for selective filters. Values
+   * that are copied or skipped whole aren't validated, so only enable this for trusted,
+   * well-formed documents.
+   */
+  protected boolean rawJsonScanningEnabled() {
+    return false;
+  }
+
+  /**
+   * When enabled, filtering is also applied inside Jackson's bean serialization so that getters
+   * of excluded properties are never invoked (see {@link PropertyFilteringSerializerModifier}).
+   * This works on a copy of the located {@code ObjectMapper}.
+   */
+  protected boolean serializerFilteringEnabled() {
+    return false;
+  }
+
+  /**
+   * With serializer filtering enabled, the number of beans of one type written with the same
+   * filter after which their properties switch from reflection to accessors generated at
+   * runtime. Return 0 to always use reflection. Properties with accessors generated by the
+   * annotation processor use them from the first write, whatever the threshold.
+   */
+  protected int getSpecializationThreshold() {
+    return PropertyFilteringSerializerModifier.DEFAULT_SPECIALIZATION_THRESHOLD;
+  }
+
+  /**
+   * With serializer filtering enabled, the maximum number of filter states for which each bean
+   * serializer keeps the list of properties that survive them. Return 0 to work the list out for
+   * every bean.
+   */
+  protected int getPrunedPropertiesCacheSize() {
+    return PropertyFilteringSerializerModifier.DEFAULT_PRUNED_PROPERTIES_CACHE_SIZE;
+  }
+
+  /**
+   * When enabled, top-level collections of at least {@link #getParallelSerializationThreshold()}
+   * elements are split into chunks of {@link #getParallelChunkSize()} elements that are
+   * serialized concurrently on {@link #getParallelSerializationExecutor()} and written out in
+   * order. Can also be enabled per endpoint with {@link PropertyFiltering#parallel()}. Elements
+   * are serialized off the request thread, so their serialization must not depend on
+   * thread-local state.
+   */
+  protected boolean parallelSerializationEnabled() {
+    return false;
+  }
+
+  protected int getParallelSerializationThreshold() {
+    return 10000;
+  }
+
+  protected int getParallelChunkSize() {
+    return 1000;
+  }
+
+  /**
+   * Maximum number of chunks of one response being serialized or buffered at once, which bounds
+   * the memory held per response to about this many serialized chunks.
+   */
+  protected int getMaxChunksInFlight() {
+    return 2 * ForkJoinPool.getCommonPoolParallelism();
+  }
+
+  protected Executor getParallelSerializationExecutor() {
+    return ForkJoinPool.commonPool();
+  }
+
+  /**
+   * {@code Stream}, {@code Iterator} and {@code Iterable} entities, and JSON Lines responses, are
+   * written one element at a time and closed afterwards. The response is flushed after the first
+   * element and then every time at least this many more bytes have been written.
+   */
+  protected int getStreamingFlushThreshold() {
+    return 64 * 1024;
+  }
+
+  /**
+   * When enabled, filters are resolved against the type of the entity before it's written:
+   * transitions for properties that type can't have (unknown names, {@code @JsonIgnore}d
+   * properties, properties outside the active {@code @JsonView}) are dropped, and requested
+   * paths naming such properties are counted as unknown. Only types that are written as
+   * declared (final classes, or any class with {@code MapperFeature.USE_STATIC_TYPING}) are
+   * resolved, other values are filtered as before. Resolved filters are cached per filter,
+   * writer and type, up to {@link #getFilterCacheSize()} of them.
+   * <p>
+   * The type resolved is the resource method's generic return type, not the runtime class of
+   * the entity, since filters are cached per type and the entity's class may vary. So an
+   * endpoint declared to return a non-final bean (or a collection of them) isn't resolved even
+   * if it only ever returns instances of that exact class; most beans aren't final, and for
+   * them this hook changes nothing unless the mapper uses static typing.
+   */
+  protected boolean typeResolutionEnabled() {
+    return false;
+  }
+
+  /**
+   * With type resolution enabled, respond with 400 Bad Request instead of just counting requests
+   * for properties the entity type doesn't have.
+   */
+  protected boolean rejectUnknownProperties() {
+    return false;
+  }
+
+  /**
+   * When enabled, filtered entities are serialized into a pooled buffer first. Responses of up
+   * to {@link #getResponseBufferSize()} bytes are then written in a single call with a
+   * {@code Content-Length} header rather than chunked, larger ones carry on streaming once they
+   * outgrow the buffer. Buffers are reused across requests.
+   */
+  protected boolean responseBufferingEnabled() {
+    return false;
+  }
+
+  protected int getResponseBufferSize() {
+    return 64 * 1024;
+  }
+
+  /**
+   * Number of released buffers of each size to keep for later responses.
+   */
+  protected int getPooledResponseBuffers() {
+    return 2 * Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * A key naming both {@code entity} and its version, e.g. its id and revision number or
+   * last-modified timestamp, or {@code null} to not cache its responses. Filtered responses are
+   * cached as bytes per entity type, key, requested properties and {@code ObjectWriter}, so no
+   * two entities of a type may share a key, and the key has to change whenever the entity's
+   * serialized form does. Cached responses carry an {@code ETag}, and requests whose
+   * {@code If-None-Match} names it get 304 Not Modified. Hits, misses, 304s and the bytes written
+   * from the cache are reported under {@code responseCache}.
+   */
+  protected Object getEntityCacheKey(Object entity) {
+    return null;
+  }
+
+  /**
+   * Approximate number of bytes of responses to keep for cached entities, see
+   * {@link #getEntityCacheKey(Object)}.
+   */
+  protected long getResponseCacheSize() {
+    return 64L * 1024 * 1024;
+  }
+
+  /**
+   * When enabled, cached responses are held in direct buffers outside the Java heap.
+   */
+  protected boolean directResponseCacheEnabled() {
+    return false;
+  }
+
+  /**
+   * Whether entities written with {@code annotations} are filtered. For resource methods bound
+   * by {@link PropertyFilteringFeature} this is asked once per entity type, generic type and
+   * media type of each method, and the answer is reused for later responses.
+   */
   protected boolean filteringEnabled(
     Class<?> type,
     Type genericType,
@@ -144,6 +542,182 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
     }
   }
 
+  /**
+   * The cache compiled filters are kept in, {@code null} if {@link #getFilterCacheSize()} turns
+   * caching off.
+   */
+  PropertyFilterCache getFilterCache() {
+    if (filterCache != null) {
+      return filterCache;
+    }
+
+    int size = getFilterCacheSize();
+    if (size <= 0) {
+      return null;
+    }
+
+    synchronized (this) {
+      if (filterCache == null) {
+        filterCache = new PropertyFilterCache(size, getMetricRegistry());
+      }
+      return filterCache;
+    }
+  }
+
+  private ObjectWriterCache getWriterCache() {
+    if (writerCache != null) {
+      return writerCache;
+    }
+
+    int size = getWriterCacheSize();
+    if (size <= 0) {
+      return null;
+    }
+
+    synchronized (this) {
+      if (writerCache == null) {
+        writerCache = new ObjectWriterCache(size);
+      }
+      return writerCache;
+    }
+  }
+
+  private ResolvedFilterCache getResolvedFilterCache() {
+    if (resolvedFilterCache != null) {
+      return resolvedFilterCache;
+    }
+
+    int size = getFilterCacheSize();
+    if (size <= 0) {
+      return null;
+    }
+
+    synchronized (this) {
+      if (resolvedFilterCache == null) {
+        resolvedFilterCache = new ResolvedFilterCache(size);
+      }
+      return resolvedFilterCache;
+    }
+  }
+
+  private ResponseBufferPool getResponseBufferPool() {
+    if (responseBufferPool != null) {
+      return responseBufferPool;
+    }
+
+    synchronized (this) {
+      if (responseBufferPool == null) {
+        responseBufferPool =
+          new ResponseBufferPool(getResponseBufferSize(), getPooledResponseBuffers());
+      }
+      return responseBufferPool;
+    }
+  }
+
+  private ResponseCache getResponseCache() {
+    if (responseCache != null) {
+      return responseCache;
+    }
+
+    synchronized (this) {
+      if (responseCache == null) {
+        responseCache =
+          new ResponseCache(
+            getResponseCacheSize(),
+            directResponseCacheEnabled(),
+            getMetricRegistry()
+          );
+      }
+      return responseCache;
+    }
+  }
+
+  private PropertyFilter resolveFilter(
+    PropertyFilter propertyFilter,
+    ObjectMapper mapper,
+    ObjectWriter writer,
+    Type type
+  ) {
+    ResolvedFilterCache cache = getResolvedFilterCache();
+    PropertyFilter resolved = cache == null
+      ? propertyFilter.resolve(TypeShape.of(mapper, writer.getConfig(), type))
+      : cache.get(propertyFilter, mapper, writer, type);
+
+    List<String> unknownPaths = resolved.getUnknownPaths();
+    if (!unknownPaths.isEmpty()) {
+      getMetricRegistry()
+        .meter(MetricRegistry.name(PropertyFilteringMessageBodyWriter.class, "unknownProperties"))
+        .mark();
+      if (rejectUnknownProperties()) {
+        throw new BadRequestException("Unknown properties: " + String.join(", ", unknownPaths));
+      }
+    }
+
+    return resolved;
+  }
+
+  private ObjectMapper locateMapper(Class<?> type, MediaType mediaType) {
+    ObjectMapper mapper = getJsonProvider().locateMapper(type, mediaType);
+    if (serializerFilteringEnabled()) {
+      mapper = getSerializerFilteringMapper(mapper);
+    }
+    return mapper;
+  }
+
+  private ObjectWriter getWriter(
+    ObjectMapper mapper,
+    Annotation[] annotations,
+    PropertyFilteringBinding binding
+  ) {
+    if (binding != null) {
+      return binding.getWriter(mapper);
+    }
+
+    ObjectWriterCache cache = getWriterCache();
+    if (cache == null) {
+      return JsonEndpointConfig.forWriting(mapper.writer(), annotations, null).getWriter();
+    }
+
+    return cache.get(mapper, annotations);
+  }
+
+  private ObjectMapper getSerializerFilteringMapper(ObjectMapper mapper) {
+    ObjectMapper filteringMapper = serializerFilteringMappers.get(mapper);
+    if (filteringMapper != null) {
+      return filteringMapper;
+    }
+
+    return serializerFilteringMappers.computeIfAbsent(mapper, this::copyWithModifier);
+  }
+
+  private ObjectMapper copyWithModifier(ObjectMapper mapper) {
+    try {
+      return PropertyFilteringSerializerModifier.copyWithModifier(
+        mapper,
+        new PropertyFilteringSerializerModifier(
+          getMetricRegistry(),
+          getSpecializationThreshold(),
+          getPrunedPropertiesCacheSize()
+        )
+      );
+    } catch (IllegalStateException e) {
+      // a mapper subclass that can't be copied still filters, only without skipping getters
+      getMetricRegistry()
+        .meter(MetricRegistry.name(PropertyFilteringMessageBodyWriter.class, "uncopyableMappers"))
+        .mark();
+      return mapper;
+    }
+  }
+
+  private boolean isParallel(PropertyFiltering propertyFiltering, Object value) {
+    return (
+      value instanceof Collection &&
+      (parallelSerializationEnabled() ||
+        (propertyFiltering != null && propertyFiltering.parallel())) &&
+      ((Collection<?>) value).size() >= getParallelSerializationThreshold()
+    );
+  }
+
   private void writeValue(
     ObjectWriter writer,
     PropertyFilter filter,
@@ -154,13 +728,7 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
     // Important: we are NOT to close the underlying stream after
     // mapping, so we need to instruct generator
     generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
-    generator =
-      new FilteringGeneratorDelegate(
-        generator,
-        filter,
-        TokenFilter.Inclusion.INCLUDE_NON_NULL,
-        true
-      );
+    generator = new PropertyFilteringGenerator(generator, filter);
 
     boolean ok = false;
 
@@ -178,6 +746,91 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
     }
   }
 
+  private void writeRawJson(
+    Object o,
+    Class<?> type,
+    MediaType mediaType,
+    PropertyFilter propertyFilter,
+    OutputStream os
+  ) throws IOException {
+    if (propertyFilter.includesAll()) {
+      RawJsonWriter.copy(o, os);
+      return;
+    }
+
+    Timer.Context context = getTimer().time();
+    try {
+      if (rawJsonScanningEnabled() && o instanceof byte[]) {
+        RawJsonScanner.write((byte[]) o, propertyFilter, os);
+      } else if (rawJsonScanningEnabled() && o instanceof String) {
+        RawJsonScanner.write((String) o, propertyFilter, os);
+      } else {
+        JsonFactory factory = getJsonProvider().locateMapper(type, mediaType).getFactory();
+        RawJsonWriter.write(o, propertyFilter, factory, os);
+      }
+    } finally {
+      context.stop();
+    }
+  }
+
+  private void writeStreaming(
+    Object o,
+    Class<?> type,
+    Annotation[] annotations,
+    PropertyFilteringBinding binding,
+    PropertyFilter propertyFilter,
+    OutputStream os,
+    boolean lines
+  ) throws IOException {
+    // JSON Lines records are plain JSON, look the mapper up as such
+    ObjectMapper mapper = locateMapper(type, MediaType.APPLICATION_JSON_TYPE);
+    ObjectWriter writer = getWriter(mapper, annotations, binding);
+    if (propertyFilter.includesAll()) {
+      writeStreaming(o, mapper, writer, propertyFilter, os, lines);
+      return;
+    }
+
+    Timer.Context context = getTimer().time();
+    try {
+      writeStreaming(o, mapper, writer, propertyFilter, os, lines);
+    } finally {
+      context.stop();
+    }
+  }
+
+  private void writeStreaming(
+    Object o,
+    ObjectMapper mapper,
+    ObjectWriter writer,
+    PropertyFilter propertyFilter,
+    OutputStream os,
+    boolean lines
+  ) throws IOException {
+    if (lines) {
+      StreamingEntityWriter.writeLines(
+        o,
+        mapper,
+        writer,
+        propertyFilter,
+        getStreamingFlushThreshold(),
+        os
+      );
+    } else {
+      StreamingEntityWriter.write(o, writer, propertyFilter, getStreamingFlushThreshold(), os);
+    }
+  }
+
+  /**
+   * Whether entities of {@code type} are written element by element, which only holds for types
+   * Jackson writes as arrays.
+   */
+  private boolean isStreaming(Class<?> type) {
+    return (
+      StreamingEntityWriter.isStreamable(type) &&
+      StreamingEntityWriter.isStreaming(locateMapper(type, MediaType.APPLICATION_JSON_TYPE), type)
+    );
+  }
+
   private void write(
     Object o,
     Class<?> type,
@@ -191,6 +844,75 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
       .writeTo(o, type, genericType, annotations, mediaType, httpHeaders, os);
   }
 
+  /**
+   * The binding {@link PropertyFilteringFeature} attached to the current request, if the entity
+   * being written is the response of that resource method.
+   */
+  private PropertyFilteringBinding findBinding(Annotation[] annotations) {
+    if (request == null) {
+      return null;
+    }
+
+    Object binding = request.getAttribute(PropertyFilteringBinding.PROPERTY_NAME);
+    if (
+      binding instanceof PropertyFilteringBinding &&
+      ((PropertyFilteringBinding) binding).appliesTo(annotations)
+    ) {
+      return (PropertyFilteringBinding) binding;
+    }
+
+    return null;
+  }
+
+  /**
+   * The filter the binding already compiled for the current request.
+   */
+  private PropertyFilter findPropertyFilter() {
+    Object filter = request.getAttribute(PropertyFilter.PROPERTY_NAME);
+    return filter instanceof PropertyFilter ? (PropertyFilter) filter : null;
+  }
+
+  /**
+   * Whether {@code value} is written as a plain JSON object, without type information.
+   */
+  private static boolean writesObject(ObjectMapper mapper, Object value) {
+    if (value instanceof ObjectNode) {
+      return true;
+    }
+
+    try {
+      SerializerProvider provider = mapper.getSerializerProviderInstance();
+      JsonSerializer<?> serializer = provider.findValueSerializer(value.getClass());
+      return (
+        (
+          serializer instanceof BeanSerializer ||
+          serializer instanceof MapSerializer ||
+          serializer instanceof PropertyFilteringMapSerializer
+        ) &&
+        provider.findTypeSerializer(mapper.constructType(value.getClass())) == null
+      );
+    } catch (JsonMappingException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Whether {@code value} is written by Jackson's own {@link MapSerializer}, without type
+   * information, so that handing it a plain map with some of its entries writes the same.
+   * {@link PropertyFilteringMapSerializer} looks keys up by itself.
+   */
+  private static boolean writesPlainMap(ObjectMapper mapper, Object value) {
+    try {
+      SerializerProvider provider = mapper.getSerializerProviderInstance();
+      return (
+        provider.findValueSerializer(value.getClass()).getClass() == MapSerializer.class &&
+        provider.findTypeSerializer(mapper.constructType(value.getClass())) == null
+      );
+    } catch (JsonMappingException e) {
+      return false;
+    }
+  }
+
   private static boolean isJsonType(MediaType mediaType) {
     return (
       MediaType.APPLICATION_JSON_TYPE.getType().equals(mediaType.getType()) &&
@@ -198,6 +920,13 @@ public class PropertyFilteringMessageBodyWriter implements MessageBodyWriter<Obj
     );
   }
 
+  private static boolean isJsonLinesType(MediaType mediaType) {
+    return (
+      "application".equals(mediaType.getType()) &&
+      ("x-ndjson".equals(mediaType.getSubtype()) || "jsonl".equals(mediaType.getSubtype()))
+    );
+  }
+
   private static PropertyFiltering findPropertyFiltering(Annotation... annotations) {
     if (annotations != null) {
       for (Annotation annotation : annotations) {
@@ -0,0 +1,186 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.core.filter.TokenFilterContext;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.MapSerializer;
+import com.fasterxml.jackson.databind.type.MapType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pushes {@link PropertyFilter} down into bean serialization: every bean property is wrapped
+ * in a {@link PropertyFilteringBeanPropertyWriter} so that getters of excluded properties are
+ * never called, and bean serializers are replaced with a {@link PropertyFilteringBeanSerializer}
+ * which caches the surviving properties per filter state. Properties of types with accessors
+ * generated at compile time (see {@link PropertyFilteringAccessors}) read through them rather
+ * than through reflection. Map serializers are wrapped in a
+ * {@link PropertyFilteringMapSerializer} which looks requested keys up directly. Filtering still
+ * requires writing through a {@link PropertyFilteringGenerator} or a
+ * {@link FilteringGeneratorDelegate}; with any other generator the wrapped properties behave
+ * exactly like the originals.
+ */
+public class PropertyFilteringSerializerModifier extends BeanSerializerModifier {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final int DEFAULT_SPECIALIZATION_THRESHOLD = 1000;
+  public static final int DEFAULT_PRUNED_PROPERTIES_CACHE_SIZE = 64;
+
+  private final transient MetricRegistry metricRegistry;
+  private final int specializationThreshold;
+  private final int prunedPropertiesCacheSize;
+
+  public PropertyFilteringSerializerModifier() {
+    this(new MetricRegistry());
+  }
+
+  public PropertyFilteringSerializerModifier(MetricRegistry metricRegistry) {
+    this(metricRegistry, DEFAULT_SPECIALIZATION_THRESHOLD);
+  }
+
+  /**
+   * @param specializationThreshold see {@link PropertyFilteringBeanSerializer}
+   */
+  public PropertyFilteringSerializerModifier(
+    MetricRegistry metricRegistry,
+    int specializationThreshold
+  ) {
+    this(metricRegistry, specializationThreshold, DEFAULT_PRUNED_PROPERTIES_CACHE_SIZE);
+  }
+
+  /**
+   * @param specializationThreshold see {@link PropertyFilteringBeanSerializer}
+   * @param prunedPropertiesCacheSize see {@link PropertyFilteringBeanSerializer}
+   */
+  public PropertyFilteringSerializerModifier(
+    MetricRegistry metricRegistry,
+    int specializationThreshold,
+    int prunedPropertiesCacheSize
+  ) {
+    this.metricRegistry = metricRegistry;
+    this.specializationThreshold = specializationThreshold;
+    this.prunedPropertiesCacheSize = prunedPropertiesCacheSize;
+  }
+
+  @Override
+  public List<BeanPropertyWriter> changeProperties(
+    SerializationConfig config,
+    BeanDescription beanDesc,
+    List<BeanPropertyWriter> beanProperties
+  ) {
+    List<BeanPropertyWriter> properties = new ArrayList<>(beanProperties.size());
+    for (BeanPropertyWriter property : beanProperties) {
+      if (
+        property.isUnwrapping() || property instanceof PropertyFilteringBeanPropertyWriter
+      ) {
+        // unwrapped properties never write their own name, their children are filtered instead
+        properties.add(property);
+      } else {
+        // accessors generated at compile time are used from the first write on
+        properties.add(
+          new PropertyFilteringBeanPropertyWriter(
+            DirectAccessBeanPropertyWriter.tryCreateGenerated(property)
+          )
+        );
+      }
+    }
+
+    return properties;
+  }
+
+  @Override
+  public JsonSerializer<?> modifySerializer(
+    SerializationConfig config,
+    BeanDescription beanDesc,
+    JsonSerializer<?> serializer
+  ) {
+    // only plain bean serializers, subclasses may serialize their fields differently
+    if (serializer.getClass() == BeanSerializer.class) {
+      return new PropertyFilteringBeanSerializer(
+        (BeanSerializer) serializer,
+        metricRegistry,
+        specializationThreshold,
+        prunedPropertiesCacheSize
+      );
+    }
+
+    return serializer;
+  }
+
+  @Override
+  public JsonSerializer<?> modifyMapSerializer(
+    SerializationConfig config,
+    MapType valueType,
+    BeanDescription beanDesc,
+    JsonSerializer<?> serializer
+  ) {
+    if (serializer.getClass() == MapSerializer.class) {
+      return new PropertyFilteringMapSerializer((MapSerializer) serializer);
+    }
+
+    return serializer;
+  }
+
+  /**
+   * Returns a copy of {@code mapper} with this modifier registered.
+   *
+   * @throws IllegalStateException if {@code mapper} can't be copied (subclasses that don't
+   *     override {@link ObjectMapper#copy()})
+   */
+  public static ObjectMapper copyWithModifier(ObjectMapper mapper) {
+    return copyWithModifier(mapper, new PropertyFilteringSerializerModifier());
+  }
+
+  static ObjectMapper copyWithModifier(
+    ObjectMapper mapper,
+    PropertyFilteringSerializerModifier modifier
+  ) {
+    SimpleModule module = new SimpleModule(PropertyFilteringSerializerModifier.class.getName());
+    module.setSerializerModifier(modifier);
+    return mapper.copy().registerModule(module);
+  }
+
+  /**
+   * Returns the filter that applies to the fields of the object currently being written:
+   * {@link TokenFilter#INCLUDE_ALL} if {@code generator} isn't applying a {@link PropertyFilter},
+   * or {@code null} if the object is excluded entirely.
+   */
+  static TokenFilter currentObjectFilter(JsonGenerator generator) {
+    if (generator instanceof PropertyFilteringGenerator) {
+      return ((PropertyFilteringGenerator) generator).currentObjectFilter();
+    }
+
+    if (!(generator instanceof FilteringGeneratorDelegate)) {
+      return TokenFilter.INCLUDE_ALL;
+    }
+
+    FilteringGeneratorDelegate delegate = (FilteringGeneratorDelegate) generator;
+    if (!(delegate.getFilter() instanceof PropertyFilter)) {
+      return TokenFilter.INCLUDE_ALL;
+    }
+
+    return ((TokenFilterContext) delegate.getFilterContext()).getFilter();
+  }
+
+  static boolean includesProperty(JsonGenerator generator, String name) {
+    TokenFilter filter = currentObjectFilter(generator);
+    if (filter == TokenFilter.INCLUDE_ALL) {
+      return true;
+    } else if (filter == null) {
+      return false;
+    } else {
+      return filter.includeProperty(name) != null;
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+/**
+ * {@link SseEventSink} that applies the {@link PropertyFilter} of the subscribing request to the
+ * data of every JSON event sent through it. Wrap the injected sink when the subscription comes
+ * in, and register the wrapper wherever the original would have gone (e.g. an
+ * {@code SseBroadcaster}, so every subscriber gets events filtered their own way). With
+ * {@link PropertyFilteringFeature} registered, {@link #forRequest} picks up the filter compiled
+ * for the request from the method's {@link PropertyFiltering} settings, and the method's
+ * {@code @JsonView}:
+ *
+ * <pre>
+ * &#64;GET
+ * &#64;Produces(MediaType.SERVER_SENT_EVENTS)
+ * &#64;PropertyFiltering
+ * public void subscribe(&#64;Context SseEventSink sink, &#64;Context Sse sse, &#64;Context HttpServletRequest request) {
+ *   broadcaster.register(PropertyFilteringSseEventSink.forRequest(sink, sse, mapper, request));
+ * }
+ * </pre>
+ *
+ * Events whose media type is {@code application/json} are serialized here, through one
+ * filtering generator and buffer reused for the lifetime of the sink, and passed on as
+ * {@code text/plain} data that the runtime writes as is. Other events are passed on untouched.
+ */
+public class PropertyFilteringSseEventSink implements SseEventSink {
+
+  private final SseEventSink delegate;
+  private final Sse sse;
+  private final ObjectWriter writer;
+  private final PropertyFilter filter;
+  private final boolean passThrough;
+  private final ByteArrayOutputStream buffer;
+  private JsonGenerator generator;
+
+  /**
+   * Filters with {@code filter}, but none of the {@code @JsonView} or other annotations of the
+   * resource method apply: see {@link #forRequest}.
+   */
+  public PropertyFilteringSseEventSink(
+    SseEventSink delegate,
+    Sse sse,
+    ObjectMapper mapper,
+    PropertyFilter filter
+  ) {
+    this(delegate, sse, mapper.writer(), filter);
+  }
+
+  public PropertyFilteringSseEventSink(
+    SseEventSink delegate,
+    Sse sse,
+    ObjectWriter writer,
+    PropertyFilter filter
+  ) {
+    this.delegate = delegate;
+    this.sse = sse;
+    this.writer = writer;
+    this.filter = filter;
+    // with a view to apply, events can't be left to the runtime's own writer
+    this.passThrough = filter.includesAll() && writer.getConfig().getActiveView() == null;
+    this.buffer = new ByteArrayOutputStream();
+  }
+
+  /**
+   * Wraps {@code delegate} with the filter {@link PropertyFilteringFeature} compiled for
+   * {@code request}, and the writer for {@code mapper} with the resource method's
+   * {@code @JsonView} and other endpoint annotations applied.
+   *
+   * @throws IllegalStateException if {@code request} wasn't bound by
+   *     {@link PropertyFilteringFeature}, because it isn't registered or the resource method
+   *     isn't annotated with {@link PropertyFiltering}
+   */
+  public static PropertyFilteringSseEventSink forRequest(
+    SseEventSink delegate,
+    Sse sse,
+    ObjectMapper mapper,
+    HttpServletRequest request
+  ) {
+    Object binding = request.getAttribute(PropertyFilteringBinding.PROPERTY_NAME);
+    Object filter = request.getAttribute(PropertyFilter.PROPERTY_NAME);
+    if (!(binding instanceof PropertyFilteringBinding) || !(filter instanceof PropertyFilter)) {
+      throw new IllegalStateException(
+        "No @PropertyFiltering binding for this request, is PropertyFilteringFeature registered?"
+      );
+    }
+
+    return new PropertyFilteringSseEventSink(
+      delegate,
+      sse,
+      ((PropertyFilteringBinding) binding).getWriter(mapper),
+      (PropertyFilter) filter
+    );
+  }
+
+  @Override
+  public boolean isClosed() {
+    return delegate.isClosed();
+  }
+
+  @Override
+  public CompletionStage<?> send(OutboundSseEvent event) {
+    if (passThrough || event.getData() == null || !isJsonType(event.getMediaType())) {
+      return delegate.send(event);
+    }
+
+    String data;
+    try {
+      data = serialize(event.getData());
+    } catch (IOException e) {
+      CompletableFuture<?> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+
+    OutboundSseEvent.Builder builder = sse
+      .newEventBuilder()
+      .id(event.getId())
+      .name(event.getName())
+      .comment(event.getComment())
+      .mediaType(MediaType.TEXT_PLAIN_TYPE)
+      .data(String.class, data);
+    if (event.isReconnectDelaySet()) {
+      builder.reconnectDelay(event.getReconnectDelay());
+    }
+
+    return delegate.send(builder.build());
+  }
+
+  @Override
+  public void close() {
+    try {
+      delegate.close();
+    } finally {
+      closeGenerator();
+    }
+  }
+
+  private synchronized String serialize(Object data) throws IOException {
+    boolean ok = false;
+    try {
+      if (RawJsonWriter.isRawJson(data.getClass())) {
+        RawJsonWriter.write(data, filter, writer.getFactory(), buffer);
+      } else {
+        // FLUSH_AFTER_WRITE_VALUE, on by default, gets each event into the buffer
+        writer.writeValue(getGenerator(), data);
+        generator.flush();
+      }
+      ok = true;
+
+      return buffer.toString(StandardCharsets.UTF_8);
+    } finally {
+      buffer.reset();
+      if (!ok) {
+        // it may have been left halfway through a value
+        closeGenerator();
+      }
+    }
+  }
+
+  private JsonGenerator getGenerator() throws IOException {
+    if (generator == null) {
+      JsonGenerator base = writer.getFactory().createGenerator(buffer);
+      // events are separate documents, not a sequence of root values
+      base.setRootValueSeparator(null);
+      generator = new PropertyFilteringGenerator(base, filter);
+    }
+
+    return generator;
+  }
+
+  private synchronized void closeGenerator() {
+    if (generator != null) {
+      try {
+        generator.close();
+      } catch (IOException ignored) {} finally {
+        generator = null;
+      }
+    }
+  }
+
+  private static boolean isJsonType(MediaType mediaType) {
+    return (
+      mediaType != null &&
+      MediaType.APPLICATION_JSON_TYPE.getType().equals(mediaType.getType()) &&
+      MediaType.APPLICATION_JSON_TYPE.getSubtype().equals(mediaType.getSubtype())
+    );
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "PropertyFilteringSseEventSink[", "]")
+      .add("delegate=" + delegate)
+      .add("filter=" + filter)
+      .toString();
+  }
+}
@@ -0,0 +1,93 @@
+package com.hubspot.jackson.jaxrs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+/**
+ * Filters {@code byte[]}, {@code String} and {@code InputStream} entities of
+ * {@link PropertyFiltering} endpoints as already serialized JSON. Runtimes like Jersey pick the
+ * writer declared for the closest type, so their own writers for these types always win over
+ * {@link PropertyFilteringMessageBodyWriter}, which is declared for {@code Object}. Register
+ * {@link ForBytes}, {@link ForString} and {@link ForInputStream} next to it to have such entities
+ * filtered; they hand everything to the {@code PropertyFilteringMessageBodyWriter} they were
+ * constructed with, which has to be the instance registered with the runtime so that it gets
+ * the request context injected and its configuration applies to raw JSON too. They aren't
+ * annotated with {@code @Provider}, so that scanning for providers doesn't start filtering such
+ * entities without anyone asking for it.
+ */
+public abstract class RawJsonMessageBodyWriter<T> implements MessageBodyWriter<T> {
+
+  private final PropertyFilteringMessageBodyWriter writer;
+
+  RawJsonMessageBodyWriter(PropertyFilteringMessageBodyWriter writer) {
+    this.writer = writer;
+  }
+
+  @Override
+  public boolean isWriteable(
+    Class<?> type,
+    Type genericType,
+    Annotation[] annotations,
+    MediaType mediaType
+  ) {
+    return (
+      RawJsonWriter.isRawJson(type) &&
+      writer.isWriteable(type, genericType, annotations, mediaType)
+    );
+  }
+
+  @Override
+  public long getSize(
+    T t,
+    Class<?> type,
+    Type genericType,
+    Annotation[] annotations,
+    MediaType mediaType
+  ) {
+    return -1;
+  }
+
+  @Override
+  public void writeTo(
+    T t,
+    Class<?> type,
+    Type genericType,
+    Annotation[] annotations,
+    MediaType mediaType,
+    MultivaluedMap<String, Object> httpHeaders,
+    OutputStream entityStream
+  ) throws IOException {
+    writer.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+  }
+
+  @Produces(MediaType.APPLICATION_JSON)
+  public static class ForBytes extends RawJsonMessageBodyWriter<byte[]> {
+
+    public ForBytes(PropertyFilteringMessageBodyWriter writer) {
+      super(writer);
+    }
+  }
+
+  @Produces(MediaType.APPLICATION_JSON)
+  public static class ForString extends RawJsonMessageBodyWriter<String> {
+
+    public ForString(PropertyFilteringMessageBodyWriter writer) {
+      super(writer);
+    }
+  }
+
+  @Produces(MediaType.APPLICATION_JSON)
+  public static class ForInputStream extends RawJsonMessageBodyWriter<InputStream> {
+
+    public ForInputStream(PropertyFilteringMessageBodyWriter writer) {
+      super(writer);
+    }
+  }
+}
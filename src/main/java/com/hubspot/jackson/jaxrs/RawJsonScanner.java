@@ -0,0 +1,294 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filters a UTF-8 JSON document without tokenizing it. Property names are matched against the
+ * {@link PropertyFilter} as raw bytes, excluded values are skipped by scanning for the matching
+ * quote or bracket, and fully included values are copied to the output as byte ranges.
+ *
+ * <p>This is meant for documents known to be well-formed, e.g. ones the application serialized
+ * and cached itself: structural errors outside copied or skipped values are reported, but the
+ * contents of those values are not validated and the original whitespace and escaping inside
+ * them is kept. The result is otherwise the same as filtering with
+ * {@link RawJsonWriter}.
+ */
+final class RawJsonScanner {
+
+  private static final JsonFactory ESCAPED_NAME_FACTORY = new JsonFactory();
+  private static final int BUFFER_SIZE = 8192;
+
+  private final byte[] json;
+  private final int end;
+  private final OutputStream outputStream;
+  private final byte[] buffer;
+  private int position;
+  private int buffered;
+
+  private RawJsonScanner(byte[] json, OutputStream outputStream) {
+    this.json = json;
+    this.end = json.length;
+    this.outputStream = outputStream;
+    this.buffer = new byte[BUFFER_SIZE];
+  }
+
+  static void write(String json, PropertyFilter filter, OutputStream outputStream)
+    throws IOException {
+    write(json.getBytes(StandardCharsets.UTF_8), filter, outputStream);
+  }
+
+  static void write(byte[] json, PropertyFilter filter, OutputStream outputStream)
+    throws IOException {
+    RawJsonScanner scanner = new RawJsonScanner(json, outputStream);
+    scanner.skipWhitespace();
+    scanner.value(filter);
+    scanner.skipWhitespace();
+    if (scanner.position != scanner.end) {
+      throw scanner.error("Unexpected content after the root value");
+    }
+    scanner.flush();
+  }
+
+  private void value(TokenFilter filter) throws IOException {
+    int start = position;
+    if (filter != TokenFilter.INCLUDE_ALL) {
+      byte b = peek();
+      if (b == '{') {
+        object(filter);
+        return;
+      } else if (b == '[') {
+        array(filter);
+        return;
+      }
+    }
+
+    // scalars are included whenever their property is
+    skipValue();
+    write(start, position);
+  }
+
+  private void object(TokenFilter filter) throws IOException {
+    position++;
+    write('{');
+    skipWhitespace();
+    if (peek() == '}') {
+      position++;
+      write('}');
+      return;
+    }
+
+    boolean first = true;
+    while (true) {
+      skipWhitespace();
+      if (peek() != '"') {
+        throw error("Expected a property name");
+      }
+      int nameStart = position;
+      boolean escaped = skipString();
+      int nameEnd = position;
+
+      skipWhitespace();
+      if (peek() != ':') {
+        throw error("Expected ':' after a property name");
+      }
+      position++;
+      skipWhitespace();
+
+      TokenFilter propertyFilter = escaped
+        ? filter.includeProperty(unescape(nameStart, nameEnd))
+        : PropertyFilter.includeProperty(filter, json, nameStart + 1, nameEnd - 1);
+      if (propertyFilter == null) {
+        skipValue();
+      } else {
+        if (!first) {
+          write(',');
+        }
+        first = false;
+        write(nameStart, nameEnd);
+        write(':');
+        value(propertyFilter);
+      }
+
+      skipWhitespace();
+      byte b = next();
+      if (b == '}') {
+        write('}');
+        return;
+      } else if (b != ',') {
+        throw error("Expected ',' or '}' in an object");
+      }
+    }
+  }
+
+  private void array(TokenFilter filter) throws IOException {
+    position++;
+    write('[');
+    skipWhitespace();
+    if (peek() == ']') {
+      position++;
+      write(']');
+      return;
+    }
+
+    boolean first = true;
+    for (int index = 0;; index++) {
+      skipWhitespace();
+      TokenFilter elementFilter = filter.includeElement(index);
+      if (elementFilter == null) {
+        skipValue();
+      } else {
+        if (!first) {
+          write(',');
+        }
+        first = false;
+        value(elementFilter);
+      }
+
+      skipWhitespace();
+      byte b = next();
+      if (b == ']') {
+        write(']');
+        return;
+      } else if (b != ',') {
+        throw error("Expected ',' or ']' in an array");
+      }
+    }
+  }
+
+  private void skipValue() throws IOException {
+    byte b = peek();
+    if (b == '"') {
+      skipString();
+    } else if (b == '{' || b == '[') {
+      skipContainer();
+    } else {
+      int start = position;
+      while (position < end && !isDelimiter(json[position])) {
+        position++;
+      }
+      if (position == start) {
+        throw error("Expected a value");
+      }
+    }
+  }
+
+  /**
+   * Skips the string starting at the current position, returning whether it has escapes.
+   */
+  private boolean skipString() throws IOException {
+    boolean escaped = false;
+    int i = position + 1;
+    while (i < end) {
+      byte b = json[i];
+      if (b == '"') {
+        position = i + 1;
+        return escaped;
+      } else if (b == '\\') {
+        escaped = true;
+        i += 2;
+      } else {
+        i++;
+      }
+    }
+
+    throw error("Unterminated string");
+  }
+
+  private void skipContainer() throws IOException {
+    int depth = 0;
+    int i = position;
+    while (i < end) {
+      byte b = json[i];
+      if (b == '"') {
+        position = i;
+        skipString();
+        i = position;
+        continue;
+      }
+
+      if (b == '{' || b == '[') {
+        depth++;
+      } else if ((b == '}' || b == ']') && --depth == 0) {
+        position = i + 1;
+        return;
+      }
+      i++;
+    }
+
+    throw error("Unterminated object or array");
+  }
+
+  private void skipWhitespace() {
+    while (position < end) {
+      byte b = json[position];
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        return;
+      }
+      position++;
+    }
+  }
+
+  private static boolean isDelimiter(byte b) {
+    return (
+      b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t'
+    );
+  }
+
+  private String unescape(int start, int end) throws IOException {
+    try (JsonParser parser = ESCAPED_NAME_FACTORY.createParser(json, start, end - start)) {
+      parser.nextToken();
+      return parser.getText();
+    }
+  }
+
+  private byte peek() throws IOException {
+    if (position >= end) {
+      throw error("Unexpected end of input");
+    }
+    return json[position];
+  }
+
+  private byte next() throws IOException {
+    byte b = peek();
+    position++;
+    return b;
+  }
+
+  private void write(int b) throws IOException {
+    if (buffered == buffer.length) {
+      flush();
+    }
+    buffer[buffered++] = (byte) b;
+  }
+
+  private void write(int start, int end) throws IOException {
+    int length = end - start;
+    if (length > buffer.length - buffered) {
+      flush();
+      if (length > buffer.length) {
+        outputStream.write(json, start, length);
+        return;
+      }
+    }
+
+    System.arraycopy(json, start, buffer, buffered, length);
+    buffered += length;
+  }
+
+  private void flush() throws IOException {
+    if (buffered > 0) {
+      outputStream.write(buffer, 0, buffered);
+      buffered = 0;
+    }
+  }
+
+  private JsonParseException error(String message) {
+    return new JsonParseException(null, message + " at byte " + position);
+  }
+}
@@ -0,0 +1,101 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Filters entities that already hold serialized JSON ({@code byte[]}, {@code String} or an
+ * {@code InputStream}) in a single streaming pass: tokens are copied from a parser into the
+ * same filtering generator used for serialized entities, and subtrees the {@link PropertyFilter}
+ * excludes are skipped in the parser without being copied or materialized.
+ */
+final class RawJsonWriter {
+
+  private RawJsonWriter() {
+    throw new AssertionError();
+  }
+
+  static boolean isRawJson(Class<?> type) {
+    return (
+      type == byte[].class || type == String.class || InputStream.class.isAssignableFrom(type)
+    );
+  }
+
+  /**
+   * Writes {@code entity} as is.
+   */
+  static void copy(Object entity, OutputStream outputStream) throws IOException {
+    if (entity instanceof byte[]) {
+      outputStream.write((byte[]) entity);
+    } else if (entity instanceof String) {
+      outputStream.write(((String) entity).getBytes(StandardCharsets.UTF_8));
+    } else {
+      try (InputStream inputStream = (InputStream) entity) {
+        inputStream.transferTo(outputStream);
+      }
+    }
+  }
+
+  static void write(
+    Object entity,
+    PropertyFilter filter,
+    JsonFactory factory,
+    OutputStream outputStream
+  ) throws IOException {
+    try (
+      JsonParser parser = createParser(entity, factory);
+      PropertyFilteringGenerator generator = createGenerator(filter, factory, outputStream)
+    ) {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null) {
+        if (token == JsonToken.FIELD_NAME && isExcluded(generator, parser.currentName())) {
+          // the generator would drop it all anyway, don't even tokenize it
+          parser.nextToken();
+          parser.skipChildren();
+          continue;
+        }
+
+        generator.copyCurrentEventExact(parser);
+      }
+    }
+  }
+
+  private static PropertyFilteringGenerator createGenerator(
+    PropertyFilter filter,
+    JsonFactory factory,
+    OutputStream outputStream
+  ) throws IOException {
+    JsonGenerator generator = factory.createGenerator(outputStream);
+    // Important: we are NOT to close the underlying stream after
+    // mapping, so we need to instruct generator
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // same generator-side filtering as for serialized entities, so the output is identical
+    return new PropertyFilteringGenerator(generator, filter);
+  }
+
+  private static boolean isExcluded(PropertyFilteringGenerator generator, String name) {
+    TokenFilter objectFilter = generator.currentObjectFilter();
+    return objectFilter == null || objectFilter.includeProperty(name) == null;
+  }
+
+  private static JsonParser createParser(Object entity, JsonFactory factory)
+    throws IOException {
+    if (entity instanceof byte[]) {
+      return factory.createParser((byte[]) entity);
+    } else if (entity instanceof String) {
+      return factory.createParser((String) entity);
+    } else {
+      JsonParser parser = factory.createParser((InputStream) entity);
+      // the entity stream is ours to close, just like the built-in InputStream writer
+      parser.enable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      return parser;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filters resolved against the type of the entity they're written for (see
+ * {@link PropertyFilter#resolve(TypeShape)}), keyed by filter and writer identity and the
+ * type, along with the shape of each type. Filters come out of a {@link PropertyFilterCache}
+ * and writers out of an {@link ObjectWriterCache} or a binding, so the same instances keep
+ * coming back. Like {@link ObjectWriterCache} it starts over once full.
+ */
+class ResolvedFilterCache {
+
+  private final int maximumSize;
+  private final ConcurrentHashMap<Key, PropertyFilter> filters;
+  private final ConcurrentHashMap<Key, TypeShape> shapes;
+
+  ResolvedFilterCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.filters = new ConcurrentHashMap<>();
+    this.shapes = new ConcurrentHashMap<>();
+  }
+
+  PropertyFilter get(PropertyFilter filter, ObjectMapper mapper, ObjectWriter writer, Type type) {
+    Key key = new Key(filter, writer, type);
+    PropertyFilter resolved = filters.get(key);
+    if (resolved != null) {
+      return resolved;
+    }
+
+    Key shapeKey = new Key(null, writer, type);
+    TypeShape shape = shapes.get(shapeKey);
+    if (shape == null) {
+      shape = TypeShape.of(mapper, writer.getConfig(), type);
+      if (shapes.size() >= maximumSize) {
+        shapes.clear();
+      }
+      shapes.put(shapeKey, shape);
+    }
+
+    resolved = filter.resolve(shape);
+    if (filters.size() >= maximumSize) {
+      filters.clear();
+    }
+    filters.put(key, resolved);
+
+    return resolved;
+  }
+
+  private static final class Key {
+
+    private final PropertyFilter filter;
+    private final ObjectWriter writer;
+    private final Type type;
+
+    private Key(PropertyFilter filter, ObjectWriter writer, Type type) {
+      this.filter = filter;
+      this.writer = writer;
+      this.type = type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+
+      Key other = (Key) o;
+      return filter == other.filter && writer == other.writer && type.equals(other.type);
+    }
+
+    @Override
+    public int hashCode() {
+      return (
+        31 * (31 * System.identityHashCode(filter) + System.identityHashCode(writer)) +
+        type.hashCode()
+      );
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.hubspot.jackson.jaxrs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Reusable byte arrays for buffering whole responses of up to {@code maximumSize} bytes, in
+ * power of two size classes from {@value #MINIMUM_SIZE} bytes up, so that a small response
+ * only ever holds a small array. Each class keeps a bounded number of released arrays around,
+ * anything beyond that is left to the garbage collector. Buffers are always heap arrays, as
+ * the container's {@link OutputStream} only takes arrays and a direct buffer would just add a
+ * copy on the way out.
+ */
+final class ResponseBufferPool {
+
+  static final int MINIMUM_SIZE = 1024;
+
+  private final int maximumSize;
+  private final ArrayBlockingQueue<byte[]>[] sizeClasses;
+
+  @SuppressWarnings("unchecked")
+  ResponseBufferPool(int maximumSize, int buffersPerSize) {
+    this.maximumSize = maximumSize;
+    int sizeClassCount = sizeClass(Math.max(maximumSize, 1)) + 1;
+    this.sizeClasses = (ArrayBlockingQueue<byte[]>[]) new ArrayBlockingQueue<?>[sizeClassCount];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new ArrayBlockingQueue<>(Math.max(buffersPerSize, 1));
+    }
+  }
+
+  /**
+   * A stream that buffers up to {@code maximumSize} bytes and then switches to writing
+   * through to {@code outputStream}. Either {@link Buffer#finish(MultivaluedMap)} or
+   * {@link Buffer#release()} it to hand its array back.
+   */
+  Buffer newBuffer(OutputStream outputStream) {
+    return new Buffer(outputStream);
+  }
+
+  private byte[] acquire(int sizeClass) {
+    byte[] buffer = sizeClasses[sizeClass].poll();
+    return buffer == null ? new byte[MINIMUM_SIZE << sizeClass] : buffer;
+  }
+
+  private void release(byte[] buffer) {
+    sizeClasses[sizeClass(buffer.length)].offer(buffer);
+  }
+
+  private static int sizeClass(int size) {
+    if (size <= MINIMUM_SIZE) {
+      return 0;
+    }
+
+    // index of the smallest power of two >= size, counted from MINIMUM_SIZE
+    return (
+      Integer.numberOfLeadingZeros(MINIMUM_SIZE - 1) - Integer.numberOfLeadingZeros(size - 1)
+    );
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "ResponseBufferPool[", "]")
+      .add("maximumSize=" + maximumSize)
+      .add("sizeClasses=" + sizeClasses.length)
+      .toString();
+  }
+
+  final class Buffer extends OutputStream {
+
+    private final OutputStream outputStream;
+    // null once released, or once the response outgrew the buffer and is written through
+    private byte[] buffer;
+    private int count;
+
+    private Buffer(OutputStream outputStream) {
+      this.outputStream = outputStream;
+      this.buffer = acquire(0);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (buffer == null) {
+        outputStream.write(b);
+      } else if (ensureCapacity(1)) {
+        buffer[count++] = (byte) b;
+      } else {
+        outputStream.write(b);
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (buffer == null) {
+        outputStream.write(b, off, len);
+      } else if (ensureCapacity(len)) {
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+      } else {
+        outputStream.write(b, off, len);
+      }
+    }
+
+    /**
+     * Makes room for {@code len} more bytes, or spills what has been buffered so far to the
+     * underlying stream and returns false if the response won't fit.
+     */
+    private boolean ensureCapacity(int len) throws IOException {
+      int required = count + len;
+      if (required < 0 || required > maximumSize) {
+        byte[] spilled = buffer;
+        buffer = null;
+        try {
+          outputStream.write(spilled, 0, count);
+        } finally {
+          ResponseBufferPool.this.release(spilled);
+        }
+        return false;
+      } else if (required <= buffer.length) {
+        return true;
+      }
+
+      byte[] grown = acquire(sizeClass(required));
+      System.arraycopy(buffer, 0, grown, 0, count);
+      ResponseBufferPool.this.release(buffer);
+      buffer = grown;
+      return true;
+    }
+
+    /**
+     * Writes out what is still buffered, in a single call and announced by a
+     * {@code Content-Length} header, and releases the buffer.
+     */
+    void finish(MultivaluedMap<String, Object> httpHeaders) throws IOException {
+      if (buffer == null) {
+        return;
+      }
+
+      httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, count);
+      try {
+        outputStream.write(buffer, 0, count);
+      } finally {
+        release();
+      }
+    }
+
+    /**
+     * Drops anything still buffered and hands the buffer back to the pool.
+     */
+    void release() {
+      if (buffer != null) {
+        ResponseBufferPool.this.release(buffer);
+        buffer = null;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (buffer == null) {
+        outputStream.flush();
+      }
+    }
+  }
+}
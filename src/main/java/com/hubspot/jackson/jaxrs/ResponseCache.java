@@ -0,0 +1,251 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.core.EntityTag;
+
+/**
+ * Filtered responses kept as bytes, keyed by the entity's type and cache key (which names the
+ * entity and its version), the requested paths of the filter and the identity of the writer,
+ * which comes out of an {@link ObjectWriterCache} or a binding. Every response carries a strong
+ * entity tag computed over its bytes. Contents are held in heap or direct buffers up to about
+ * {@code maximumBytes} in total; a response larger than a sixteenth of that isn't kept, and like
+ * {@link ObjectWriterCache} the cache starts over once full.
+ */
+final class ResponseCache {
+
+  private final long maximumBytes;
+  private final boolean direct;
+  private final ConcurrentHashMap<Key, CachedResponse> responses;
+  private final AtomicLong bytes;
+  private final Meter hits;
+  private final Meter misses;
+  private final Meter notModified;
+  private final Meter bytesServed;
+
+  ResponseCache(long maximumBytes, boolean direct, MetricRegistry metricRegistry) {
+    this.maximumBytes = maximumBytes;
+    this.direct = direct;
+    this.responses = new ConcurrentHashMap<>();
+    this.bytes = new AtomicLong();
+    this.hits = metricRegistry.meter(metricName("hits"));
+    this.misses = metricRegistry.meter(metricName("misses"));
+    this.notModified = metricRegistry.meter(metricName("notModified"));
+    this.bytesServed = metricRegistry.meter(metricName("bytesServed"));
+
+    // the registry outlives this cache, so only the meters are captured
+    Meter hits = this.hits;
+    Meter misses = this.misses;
+    metricRegistry.gauge(
+      metricName("hitRatio"),
+      () ->
+        new RatioGauge() {
+          @Override
+          protected Ratio getRatio() {
+            double hitRate = hits.getOneMinuteRate();
+            return Ratio.of(hitRate, hitRate + misses.getOneMinuteRate());
+          }
+        }
+    );
+  }
+
+  CachedResponse get(Class<?> type, Object entityKey, PropertyFilter filter, ObjectWriter writer) {
+    CachedResponse response = responses.get(new Key(type, entityKey, filter.getPaths(), writer));
+    if (response == null) {
+      misses.mark();
+    } else {
+      hits.mark();
+    }
+
+    return response;
+  }
+
+  /**
+   * Caches the serialized response, if it's small enough, and returns it either way. If another
+   * thread got there first, its response is returned instead.
+   */
+  CachedResponse put(
+    Class<?> type,
+    Object entityKey,
+    PropertyFilter filter,
+    ObjectWriter writer,
+    byte[] content
+  ) {
+    CachedResponse response = new CachedResponse(content, direct);
+    if (content.length > maximumBytes / 16) {
+      return response;
+    }
+
+    if (bytes.get() + content.length > maximumBytes) {
+      responses.clear();
+      bytes.set(0);
+    }
+
+    CachedResponse existing = responses.putIfAbsent(
+      new Key(type, entityKey, filter.getPaths(), writer),
+      response
+    );
+    if (existing != null) {
+      return existing;
+    }
+
+    // only what is actually held counts towards the size
+    bytes.addAndGet(content.length);
+    return response;
+  }
+
+  void markNotModified() {
+    notModified.mark();
+  }
+
+  /**
+   * Writes out a response that came from the cache.
+   */
+  void write(CachedResponse response, OutputStream outputStream) throws IOException {
+    response.writeTo(outputStream);
+    bytesServed.mark(response.length());
+  }
+
+  private static String metricName(String name) {
+    return MetricRegistry.name(PropertyFilteringMessageBodyWriter.class, "responseCache", name);
+  }
+
+  static final class CachedResponse {
+
+    private final ByteBuffer content;
+    private final EntityTag entityTag;
+
+    private CachedResponse(byte[] content, boolean direct) {
+      if (direct) {
+        this.content = ByteBuffer.allocateDirect(content.length).put(content).flip();
+      } else {
+        this.content = ByteBuffer.wrap(content);
+      }
+      this.entityTag = new EntityTag(digest(content));
+    }
+
+    EntityTag getEntityTag() {
+      return entityTag;
+    }
+
+    int length() {
+      return content.remaining();
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value names this response, so that the client's
+     * copy is still good. Entity tags compare weakly there, as HTTP specifies.
+     */
+    boolean matches(String ifNoneMatch) {
+      if (ifNoneMatch == null) {
+        return false;
+      }
+
+      for (String tag : ifNoneMatch.split(",")) {
+        tag = tag.trim();
+        if (tag.startsWith("W/")) {
+          tag = tag.substring(2);
+        }
+
+        if (
+          tag.equals("*") ||
+          (
+            tag.length() == entityTag.getValue().length() + 2 &&
+            tag.startsWith("\"") &&
+            tag.endsWith("\"") &&
+            tag.regionMatches(1, entityTag.getValue(), 0, entityTag.getValue().length())
+          )
+        ) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+      if (content.hasArray()) {
+        outputStream.write(content.array(), content.arrayOffset(), content.remaining());
+        return;
+      }
+
+      // shared between requests, so read through a view of our own
+      ByteBuffer view = content.duplicate();
+      byte[] chunk = new byte[Math.min(view.remaining(), 8192)];
+      while (view.hasRemaining()) {
+        int length = Math.min(view.remaining(), chunk.length);
+        view.get(chunk, 0, length);
+        outputStream.write(chunk, 0, length);
+      }
+    }
+
+    private static String digest(byte[] content) {
+      try {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return new StringJoiner(", ", "CachedResponse[", "]")
+        .add("length=" + length())
+        .add("entityTag=" + entityTag.getValue())
+        .toString();
+    }
+  }
+
+  private static final class Key {
+
+    private final Class<?> type;
+    private final Object entityKey;
+    private final List<String> paths;
+    private final ObjectWriter writer;
+
+    private Key(Class<?> type, Object entityKey, List<String> paths, ObjectWriter writer) {
+      this.type = type;
+      this.entityKey = entityKey;
+      this.paths = paths;
+      this.writer = writer;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+
+      Key other = (Key) o;
+      return (
+        type == other.type &&
+        writer == other.writer &&
+        entityKey.equals(other.entityKey) &&
+        paths.equals(other.paths)
+      );
+    }
+
+    @Override
+    public int hashCode() {
+      return (
+        31 * (31 * (31 * type.hashCode() + entityKey.hashCode()) + paths.hashCode()) +
+        System.identityHashCode(writer)
+      );
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.std.AsArraySerializerBase;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
+/**
+ * Writes {@code Stream}, {@code Iterator} and (non-collection) {@code Iterable} entities as a
+ * JSON array one element at a time, so nothing beyond the current element is held in memory.
+ * Iterables that Jackson doesn't write as arrays, like JSON trees, {@code Path}s and beans, are
+ * left alone.
+ * The same goes for JSON Lines output, where every element of a collection, array or stream is
+ * written as one filtered document per line. The output is flushed after the first element, so
+ * that clients get the first bytes right away, and then whenever another {@code flushThreshold}
+ * bytes have been written. The source is closed once written if it is closeable.
+ */
+final class StreamingEntityWriter {
+
+  private StreamingEntityWriter() {
+    throw new AssertionError();
+  }
+
+  /**
+   * Whether {@code type} could be streamed at all, a cheap check to make before looking up the
+   * mapper for {@link #isStreaming(ObjectMapper, Class)}.
+   */
+  static boolean isStreamable(Class<?> type) {
+    return (
+      BaseStream.class.isAssignableFrom(type) ||
+      Iterator.class.isAssignableFrom(type) ||
+      (Iterable.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type))
+    );
+  }
+
+  /**
+   * Whether {@code mapper} writes {@code type} as a JSON array of its elements, so that it can be
+   * streamed element by element. Iterables that Jackson writes otherwise, e.g. beans with
+   * properties of their own, JSON trees or {@code Path}s, are left to it. Jackson has no
+   * serializer of its own for streams, so they're always streamed.
+   */
+  static boolean isStreaming(ObjectMapper mapper, Class<?> type) {
+    if (!isStreamable(type)) {
+      return false;
+    } else if (BaseStream.class.isAssignableFrom(type)) {
+      return true;
+    }
+
+    try {
+      JsonSerializer<Object> serializer = mapper
+        .getSerializerProviderInstance()
+        .findTypedValueSerializer(type, true, null);
+      // includes the iterable and iterator serializers
+      return serializer instanceof AsArraySerializerBase;
+    } catch (JsonMappingException e) {
+      return false;
+    }
+  }
+
+  static Iterator<?> elements(Object entity) {
+    if (entity instanceof BaseStream) {
+      return ((BaseStream<?, ?>) entity).iterator();
+    } else if (entity instanceof Iterator) {
+      return (Iterator<?>) entity;
+    } else {
+      return ((Iterable<?>) entity).iterator();
+    }
+  }
+
+  /**
+   * The records of {@code entity} when written as JSON Lines: its elements if it is a collection,
+   * array or stream, otherwise just the entity itself.
+   */
+  static Iterator<?> records(Object entity, ObjectMapper mapper) {
+    if (entity instanceof Collection) {
+      return ((Collection<?>) entity).iterator();
+    } else if (entity instanceof Object[]) {
+      return Arrays.asList((Object[]) entity).iterator();
+    } else if (entity != null && isStreaming(mapper, entity.getClass())) {
+      return elements(entity);
+    } else {
+      return Collections.singleton(entity).iterator();
+    }
+  }
+
+  /**
+   * Closes {@code entity} if it is, or its elements come from, something closeable.
+   */
+  static void close(Object entity) throws IOException {
+    if (!(entity instanceof AutoCloseable)) {
+      return;
+    }
+
+    try {
+      ((AutoCloseable) entity).close();
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException("Unable to close " + entity.getClass().getName(), e);
+    }
+  }
+
+  static void write(
+    Object entity,
+    ObjectWriter writer,
+    PropertyFilter filter,
+    int flushThreshold,
+    OutputStream outputStream
+  ) throws IOException {
+    write(elements(entity), entity, writer, filter, flushThreshold, outputStream, false);
+  }
+
+  static void writeLines(
+    Object entity,
+    ObjectMapper mapper,
+    ObjectWriter writer,
+    PropertyFilter filter,
+    int flushThreshold,
+    OutputStream outputStream
+  ) throws IOException {
+    write(records(entity, mapper), entity, writer, filter, flushThreshold, outputStream, true);
+  }
+
+  private static void write(
+    Iterator<?> elements,
+    Object source,
+    ObjectWriter writer,
+    PropertyFilter filter,
+    int flushThreshold,
+    OutputStream outputStream,
+    boolean lines
+  ) throws IOException {
+    try {
+      CountingOutputStream counter = new CountingOutputStream(outputStream);
+      JsonGenerator generator = writer.getFactory().createGenerator(counter);
+      // Important: we are NOT to close the underlying stream after
+      // mapping, so we need to instruct generator
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+      try (JsonGenerator filteringGenerator = filter(generator, filter)) {
+        // flushing is up to us, not after every element
+        ObjectWriter sequenceWriter = writer.without(
+          SerializationFeature.FLUSH_AFTER_WRITE_VALUE
+        );
+        boolean written;
+        try (
+          SequenceWriter sequence = lines
+            ? lines(sequenceWriter).writeValues(filteringGenerator)
+            : sequenceWriter.writeValuesAsArray(filteringGenerator)
+        ) {
+          written = write(elements, sequence, generator, counter, flushThreshold);
+        }
+
+        if (lines && written) {
+          // the separator only goes between records, every line ends with one though
+          generator.writeRaw('\n');
+        }
+      }
+    } finally {
+      close(source);
+    }
+  }
+
+  /**
+   * {@code writer} writing every record on a line of its own: pretty printing would spread
+   * records over several lines and separate them with spaces.
+   */
+  private static ObjectWriter lines(ObjectWriter writer) {
+    return writer.without(SerializationFeature.INDENT_OUTPUT).withRootValueSeparator("\n");
+  }
+
+  private static boolean write(
+    Iterator<?> elements,
+    SequenceWriter sequence,
+    JsonGenerator generator,
+    CountingOutputStream counter,
+    int flushThreshold
+  ) throws IOException {
+    long flushedAt = -1;
+    while (elements.hasNext()) {
+      sequence.write(elements.next());
+
+      long written = counter.count + generator.getOutputBuffered();
+      if (flushedAt < 0 || written - flushedAt >= flushThreshold) {
+        generator.flush();
+        flushedAt = counter.count;
+      }
+    }
+
+    return flushedAt >= 0;
+  }
+
+  private static JsonGenerator filter(JsonGenerator generator, PropertyFilter filter) {
+    if (filter.includesAll()) {
+      return generator;
+    }
+
+    return new PropertyFilteringGenerator(generator, filter);
+  }
+
+  private static final class CountingOutputStream extends FilterOutputStream {
+
+    long count;
+
+    CountingOutputStream(OutputStream outputStream) {
+      super(outputStream);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.hubspot.jackson.jaxrs;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * The property names a value of some type can be written with, and the shape of each of those
+ * properties, as far as Jackson's serializers tell. Containers take the shape of their
+ * elements, since a filter applies to every element alike. A shape is open, meaning any name
+ * may be written, whenever the runtime value could be of another type than the declared one
+ * (non-final classes, polymorphic type info) or its serializer isn't a plain bean serializer
+ * (maps, custom serializers, any-getters, unwrapped properties, object ids). Properties hidden
+ * by the active view aren't part of the shape, nor are ignored ones, which have no writer.
+ */
+final class TypeShape {
+
+  static final TypeShape OPEN = new TypeShape(null);
+  private static final TypeShape SCALAR = new TypeShape(Collections.emptyMap());
+
+  // null when open
+  private final Map<String, TypeShape> properties;
+
+  private TypeShape(Map<String, TypeShape> properties) {
+    this.properties = properties;
+  }
+
+  boolean isOpen() {
+    return properties == null;
+  }
+
+  /**
+   * The shapes of the properties of a closed shape, by name.
+   */
+  Map<String, TypeShape> getProperties() {
+    return properties;
+  }
+
+  static TypeShape of(ObjectMapper mapper, SerializationConfig config, Type type) {
+    JavaType javaType = config.getTypeFactory().constructType(type);
+    return new Resolver(mapper.getSerializerProviderInstance(), config).resolve(javaType);
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", "TypeShape[", "]")
+      .add("properties=" + (isOpen() ? "*" : properties.keySet()))
+      .toString();
+  }
+
+  private static final class Resolver {
+
+    private final SerializerProvider provider;
+    private final SerializationConfig config;
+    // shapes being or already resolved, so that recursive types end up as cycles
+    private final Map<JavaType, TypeShape> shapes;
+
+    private Resolver(SerializerProvider provider, SerializationConfig config) {
+      this.provider = provider;
+      this.config = config;
+      this.shapes = new HashMap<>();
+    }
+
+    private TypeShape resolve(JavaType type) {
+      if (type.isContainerType() && !type.isMapLikeType()) {
+        return resolve(type.getContentType());
+      } else if (type.isReferenceType()) {
+        return resolve(type.getReferencedType());
+      } else if (!isExact(type)) {
+        return OPEN;
+      }
+
+      TypeShape shape = shapes.get(type);
+      if (shape != null) {
+        return shape;
+      }
+
+      try {
+        return resolve(type, provider.findValueSerializer(type));
+      } catch (JsonMappingException e) {
+        return OPEN;
+      }
+    }
+
+    private TypeShape resolve(JavaType type, JsonSerializer<?> serializer)
+      throws JsonMappingException {
+      if (serializer instanceof StdScalarSerializer) {
+        return SCALAR;
+      } else if (
+        !(serializer instanceof BeanSerializerBase) ||
+        ((BeanSerializerBase) serializer).usesObjectId() ||
+        provider.findTypeSerializer(type) != null
+      ) {
+        return OPEN;
+      }
+
+      BeanDescription description = config.introspect(type);
+      if (description.findAnyGetter() != null) {
+        return OPEN;
+      }
+
+      Iterator<PropertyWriter> writers = ((BeanSerializerBase) serializer).properties();
+      while (writers.hasNext()) {
+        PropertyWriter writer = writers.next();
+        if (
+          !(writer instanceof BeanPropertyWriter) || ((BeanPropertyWriter) writer).isUnwrapping()
+        ) {
+          return OPEN;
+        }
+      }
+
+      Map<String, TypeShape> properties = new HashMap<>();
+      TypeShape shape = new TypeShape(properties);
+      shapes.put(type, shape);
+
+      writers = ((BeanSerializerBase) serializer).properties();
+      while (writers.hasNext()) {
+        BeanPropertyWriter property = (BeanPropertyWriter) writers.next();
+        if (isVisible(property)) {
+          properties.put(
+            property.getName(),
+            hasCustomSerializer(property) || property.getTypeSerializer() != null
+              ? OPEN
+              : resolve(property.getType())
+          );
+        }
+      }
+
+      return shape;
+    }
+
+    /**
+     * Whether the property is written by a serializer of its own choosing, which may write
+     * anything. Serializers assigned up front to final types don't count.
+     */
+    private boolean hasCustomSerializer(BeanPropertyWriter property) {
+      AnnotationIntrospector introspector = config.getAnnotationIntrospector();
+      return (
+        introspector.findSerializer(property.getMember()) != null ||
+        introspector.findContentSerializer(property.getMember()) != null
+      );
+    }
+
+    /**
+     * Whether values declared as {@code type} are written as exactly that type.
+     */
+    private boolean isExact(JavaType type) {
+      return (
+        type.isFinal() ||
+        type.isEnumType() ||
+        config.isEnabled(MapperFeature.USE_STATIC_TYPING)
+      );
+    }
+
+    private boolean isVisible(BeanPropertyWriter property) {
+      Class<?> activeView = config.getActiveView();
+      if (activeView == null) {
+        return true;
+      }
+
+      Class<?>[] views = property.getViews();
+      if (views == null) {
+        return config.isEnabled(MapperFeature.DEFAULT_VIEW_INCLUSION);
+      }
+
+      for (Class<?> view : views) {
+        if (view.isAssignableFrom(activeView)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
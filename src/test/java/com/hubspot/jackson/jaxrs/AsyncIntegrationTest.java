@@ -0,0 +1,53 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import java.io.IOException;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AsyncIntegrationTest extends BaseTest {
+
+  private static final TypeReference<List<TestNestedObject>> LIST_NESTED_TYPE =
+    new TypeReference<List<TestNestedObject>>() {};
+
+  @BeforeClass
+  public static void start() throws Exception {
+    start(new PropertyFilteringMessageBodyWriter(), new PropertyFilteringFeature());
+  }
+
+  @Test
+  public void testAsyncResponseFiltered() throws IOException {
+    assertFiltered(
+      getObjects(LIST_NESTED_TYPE, "/async/response", "property", "id", "nested.name")
+    );
+  }
+
+  @Test
+  public void testAsyncResponseUnfiltered() throws IOException {
+    List<TestNestedObject> objects = getObjects(LIST_NESTED_TYPE, "/async/response", "property");
+
+    assertThat(objects).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(objects.get(i).getId()).isEqualTo(i);
+      assertThat(objects.get(i).getName()).isEqualTo("Test " + i);
+      assertThat(objects.get(i).getSecondNested().getId()).isEqualTo(i * 1_000);
+    }
+  }
+
+  private static void assertFiltered(List<TestNestedObject> objects) {
+    assertThat(objects).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      TestNestedObject object = objects.get(i);
+
+      assertThat(object.getId()).isEqualTo(i);
+      assertThat(object.getName()).isNull();
+      assertThat(object.getNested().getId()).isNull();
+      assertThat(object.getNested().getName()).isEqualTo("Nested Test " + i * 100);
+      assertThat(object.getSecondNested()).isNull();
+    }
+  }
+}
@@ -1,11 +1,16 @@
 package com.hubspot.jackson.jaxrs;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.hubspot.jackson.jaxrs.util.Helper;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.assertj.core.util.Strings;
 import org.eclipse.jetty.server.Server;
 import org.junit.AfterClass;
@@ -19,7 +24,15 @@ public abstract class BaseTest {
 
   @BeforeClass
   public static void start() throws Exception {
-    server = Helper.INSTANCE.startServer();
+    start(new PropertyFilteringMessageBodyWriter());
+  }
+
+  /**
+   * Serves the test resource with {@code writer} and any other {@code providers}.
+   */
+  protected static void start(PropertyFilteringMessageBodyWriter writer, Object... providers)
+    throws Exception {
+    server = Helper.INSTANCE.startServer(writer, providers);
     port = Helper.INSTANCE.getPort(server);
   }
 
@@ -36,6 +49,71 @@ public abstract class BaseTest {
     String queryParamName,
     String... queryParams
   ) throws IOException {
+    URL url = getUrl(path, queryParamName, queryParams);
+
+    return reader.forType(typeReference).readValue(url.openStream());
+  }
+
+  /**
+   * Reads a JSON Lines response, one value per line.
+   */
+  protected <T> List<T> getLines(
+    TypeReference<T> typeReference,
+    String path,
+    String queryParamName,
+    String... queryParams
+  ) throws IOException {
+    URL url = getUrl(path, queryParamName, queryParams);
+
+    try (
+      MappingIterator<T> values = reader.forType(typeReference).readValues(url.openStream())
+    ) {
+      return values.readAll();
+    }
+  }
+
+  /**
+   * Reads a response body as it was written.
+   */
+  protected String getBody(String path, String queryParamName, String... queryParams)
+    throws IOException {
+    URL url = getUrl(path, queryParamName, queryParams);
+
+    try (InputStream inputStream = url.openStream()) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * A connection to the resource, not yet connected, for tests that look at status codes and
+   * headers or send headers of their own.
+   */
+  protected HttpURLConnection openConnection(
+    String path,
+    String queryParamName,
+    String... queryParams
+  ) throws IOException {
+    return (HttpURLConnection) getUrl(path, queryParamName, queryParams).openConnection();
+  }
+
+  /**
+   * Reads a response body as it was written, whatever the status.
+   */
+  protected static String readBody(HttpURLConnection connection) throws IOException {
+    InputStream inputStream = connection.getResponseCode() >= 400
+      ? connection.getErrorStream()
+      : connection.getInputStream();
+    if (inputStream == null) {
+      return "";
+    }
+
+    try (inputStream) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static URL getUrl(String path, String queryParamName, String... queryParams)
+    throws IOException {
     String urlString = "http://localhost:" + port + "/test" + path;
     if (queryParams.length > 0) {
       urlString +=
@@ -45,8 +123,6 @@ public abstract class BaseTest {
       Strings.join(queryParams).with("&" + queryParamName + "=");
     }
 
-    URL url = new URL(urlString);
-
-    return reader.forType(typeReference).readValue(url.openStream());
+    return new URL(urlString);
   }
 }
@@ -0,0 +1,58 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import java.io.IOException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Filters of bound methods are compiled with the writer's cache, reporting to its registry.
+ */
+public class BindingFilterCacheTest extends BaseTest {
+
+  @BeforeClass
+  public static void start() throws Exception {
+    PropertyFilteringMessageBodyWriter writer = new MeteredWriter();
+    start(writer, new PropertyFilteringFeature(writer));
+  }
+
+  @Test
+  public void testBindingUsesWritersCache() throws IOException {
+    for (int i = 0; i < 3; i++) {
+      TestNestedObject object = getObjects(
+        new TypeReference<TestNestedObject>() {},
+        "/nested",
+        "property",
+        "id",
+        "nested.name"
+      );
+
+      assertThat(object.getId()).isEqualTo(1);
+      assertThat(object.getName()).isNull();
+      assertThat(object.getNested().getName()).isEqualTo("Nested Test 100");
+    }
+
+    assertThat(meter("misses")).isEqualTo(1);
+    assertThat(meter("hits")).isEqualTo(2);
+  }
+
+  private static long meter(String name) {
+    return MeteredWriter.REGISTRY
+      .meter(MetricRegistry.name(PropertyFilterCache.class, name))
+      .getCount();
+  }
+
+  public static class MeteredWriter extends PropertyFilteringMessageBodyWriter {
+
+    private static final MetricRegistry REGISTRY = new MetricRegistry();
+
+    @Override
+    protected MetricRegistry getMetricRegistry() {
+      return REGISTRY;
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.hubspot.jackson.jaxrs;
+
+import org.junit.BeforeClass;
+
+/**
+ * Same as {@link JsonViewTest}, with {@link PropertyFilteringFeature} registered.
+ */
+public class BindingJsonViewTest extends JsonViewTest {
+
+  @BeforeClass
+  public static void start() throws Exception {
+    start(new PropertyFilteringMessageBodyWriter(), new PropertyFilteringFeature());
+  }
+}
@@ -0,0 +1,14 @@
+package com.hubspot.jackson.jaxrs;
+
+import org.junit.BeforeClass;
+
+/**
+ * Same as {@link StandardTest}, with {@link PropertyFilteringFeature} registered.
+ */
+public class BindingStandardTest extends StandardTest {
+
+  @BeforeClass
+  public static void start() throws Exception {
+    start(new PropertyFilteringMessageBodyWriter(), new PropertyFilteringFeature());
+  }
+}
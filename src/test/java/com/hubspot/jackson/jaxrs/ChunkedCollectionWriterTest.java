@@ -0,0 +1,129 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+public class ChunkedCollectionWriterTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4);
+
+  @AfterClass
+  public static void shutdown() {
+    EXECUTOR.shutdown();
+  }
+
+  @Test
+  public void itMatchesSequentialSerialization() throws IOException {
+    for (String[] properties : Arrays.asList(
+      new String[] { "id" },
+      new String[] { "!name" },
+      new String[] { "nested.id", "secondNested" },
+      new String[] { "*.name" },
+      new String[] { "!*" }
+    )) {
+      PropertyFilter filter = new PropertyFilter(Arrays.asList(properties));
+
+      for (int size : new int[] { 0, 1, 7, 100, 1001 }) {
+        List<TestNestedObject> objects = objects(size);
+        assertThat(writeChunked(objects, filter, 10, 3))
+          .isEqualTo(writeSequential(objects, filter));
+      }
+    }
+  }
+
+  @Test
+  public void itWritesSetsInIterationOrder() throws IOException {
+    PropertyFilter filter = new PropertyFilter(Collections.singletonList("id"));
+    LinkedHashSet<TestNestedObject> objects = new LinkedHashSet<>(objects(50));
+
+    assertThat(writeChunked(objects, filter, 7, 2))
+      .isEqualTo(writeSequential(objects, filter));
+  }
+
+  @Test
+  public void itOnlySupportsPlainArrays() {
+    List<TestNestedObject> objects = objects(1);
+
+    assertThat(ChunkedCollectionWriter.supports(MAPPER, MAPPER.writer(), objects)).isTrue();
+    assertThat(
+      ChunkedCollectionWriter.supports(
+        MAPPER,
+        MAPPER.writer(SerializationFeature.INDENT_OUTPUT),
+        objects
+      )
+    )
+      .isFalse();
+    assertThat(ChunkedCollectionWriter.supports(MAPPER, MAPPER.writer(), objects.get(0)))
+      .isFalse();
+  }
+
+  @Test(expected = JsonMappingException.class)
+  public void itPropagatesChunkFailures() throws IOException {
+    List<Object> objects = new ArrayList<>(objects(100));
+    objects.set(42, new Object());
+
+    writeChunked(objects, new PropertyFilter(Collections.singletonList("id")), 10, 3);
+  }
+
+  private static String writeChunked(
+    Collection<?> objects,
+    PropertyFilter filter,
+    int chunkSize,
+    int maxChunksInFlight
+  ) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ChunkedCollectionWriter(MAPPER.writer(), filter, EXECUTOR, chunkSize, maxChunksInFlight)
+      .write(objects, output);
+    return output.toString("UTF-8");
+  }
+
+  private static String writeSequential(Object value, PropertyFilter filter)
+    throws IOException {
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = new FilteringGeneratorDelegate(
+      MAPPER.getFactory().createGenerator(writer),
+      filter,
+      TokenFilter.Inclusion.INCLUDE_NON_NULL,
+      true
+    );
+    MAPPER.writeValue(generator, value);
+    return writer.toString();
+  }
+
+  private static List<TestNestedObject> objects(int size) {
+    List<TestNestedObject> objects = new ArrayList<>();
+    for (long i = 0; i < size; i++) {
+      objects.add(
+        new TestNestedObject(
+          i,
+          "Test " + i,
+          new TestObject(i * 100, "Nested " + i),
+          new TestObject(i * 1_000, "Second " + i)
+        )
+      );
+    }
+    return objects;
+  }
+}
@@ -0,0 +1,225 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import org.junit.Test;
+
+public class DirectKeyLookupTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final ObjectMapper FILTERING_MAPPER = PropertyFilteringSerializerModifier.copyWithModifier(
+    new ObjectMapper()
+  );
+
+  @Test
+  public void itOnlyLooksUpFiniteIncludes() {
+    assertThat(PropertyFilter.includedNames(filter("b", "a.c", "!d")))
+      .containsExactly("a", "b");
+    assertThat(PropertyFilter.includedNames(filter("b", "!b"))).isEmpty();
+    assertThat(PropertyFilter.includedNames(filter("*", "!b"))).isNull();
+    assertThat(PropertyFilter.includedNames(filter("!b"))).isNull();
+    assertThat(PropertyFilter.includedNames(TokenFilter.INCLUDE_ALL)).isNull();
+  }
+
+  @Test
+  public void itFiltersLargeObjectNodesLikeSmallOnes() {
+    for (String[] properties : Arrays.asList(
+      new String[] { "f1", "f7" },
+      new String[] { "f1", "f7", "!f7" },
+      new String[] { "f3.f1", "f500", "missing" },
+      new String[] { "*.f2", "f3" },
+      new String[] { "f1", "!*" }
+    )) {
+      ObjectNode large = largeObject(2000);
+      ObjectNode expected = large.deepCopy();
+      retainByIteration(expected, filter(properties));
+
+      filter(properties).filter(large);
+
+      assertThat(large).isEqualTo(expected);
+      // equality doesn't care about the order of fields, the output does
+      assertThat(large.toString()).isEqualTo(expected.toString());
+    }
+  }
+
+  @Test
+  public void itWritesLargeMapsLikeSmallOnes() throws IOException {
+    Map<String, Object> map = new HashMap<>(largeMap(2000));
+    PropertyFilter filter = filter("f1", "f3.f2", "f1999", "missing");
+
+    Object selected = DirectKeyLookup.select(map, filter);
+
+    assertThat(selected).isInstanceOf(Map.class);
+    assertThat((Map<?, ?>) selected).hasSize(3);
+    assertThat(read(write(MAPPER, selected, filter)))
+      .isEqualTo(read(write(MAPPER, map, filter)));
+  }
+
+  @Test
+  public void itWritesLargeNestedMapsLikeSmallOnes() throws IOException {
+    Map<String, Object> map = Collections.singletonMap("map", new HashMap<>(largeMap(2000)));
+
+    for (String[] properties : Arrays.asList(
+      new String[] { "map.f1", "map.f1999" },
+      new String[] { "map.f3.f2", "map.missing" },
+      new String[] { "map.f1", "!map.f1" },
+      new String[] { "map", "!map.f1" }
+    )) {
+      PropertyFilter filter = filter(properties);
+      assertThat(read(write(FILTERING_MAPPER, map, filter)))
+        .isEqualTo(read(write(MAPPER, map, filter)));
+    }
+  }
+
+  @Test
+  public void itKeepsTypeInfoOfMapValues() throws IOException {
+    AnimalHolder holder = new AnimalHolder();
+    for (int i = 0; i < 2000; i++) {
+      holder.animals.put("a" + i, new Dog("rex" + i, i));
+    }
+
+    assertThat(FILTERING_MAPPER.writeValueAsString(holder))
+      .isEqualTo(MAPPER.writeValueAsString(holder));
+    assertThat(write(FILTERING_MAPPER, holder, filter("animals.a1")))
+      .isEqualTo(
+        "{\"animals\":{\"a1\":{\"@class\":\"" +
+        Dog.class.getName() +
+        "\",\"name\":\"rex1\",\"bark\":1}}}"
+      );
+    for (String[] properties : Arrays.asList(
+      new String[] { "animals.a1.name", "animals.a1999" },
+      new String[] { "animals", "!animals.a1" }
+    )) {
+      PropertyFilter filter = filter(properties);
+      assertThat(read(write(FILTERING_MAPPER, holder, filter)))
+        .isEqualTo(read(write(MAPPER, holder, filter)));
+    }
+  }
+
+  @Test
+  public void itKeepsTheOrderOfOrderedMaps() {
+    PropertyFilter filter = filter("f90", "f10", "f50");
+
+    Map<String, Object> linked = largeMap(100);
+    Map<String, Object> hashed = new HashMap<>(linked);
+    Map<String, Object> sorted = new TreeMap<>(linked);
+
+    assertThat(DirectKeyLookup.select(linked, filter)).isSameAs(linked);
+    assertThat(((Map<?, ?>) DirectKeyLookup.select(hashed, filter)).keySet().toString())
+      .isEqualTo("[f10, f50, f90]");
+    assertThat(((Map<?, ?>) DirectKeyLookup.select(sorted, filter)).keySet().toString())
+      .isEqualTo("[f10, f50, f90]");
+  }
+
+  @Test
+  public void itLeavesOtherMapsAlone() {
+    PropertyFilter filter = filter("1");
+
+    Map<Long, Object> longKeys = new HashMap<>();
+    for (long i = 0; i < 2000; i++) {
+      longKeys.put(i, i);
+    }
+    Map<String, Object> sorted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    sorted.putAll(largeMap(2000));
+    Map<String, Object> small = largeMap(10);
+
+    assertThat(DirectKeyLookup.select(longKeys, filter)).isSameAs(longKeys);
+    assertThat(DirectKeyLookup.select(sorted, filter)).isSameAs(sorted);
+    assertThat(DirectKeyLookup.select(small, filter)).isSameAs(small);
+  }
+
+  public static class AnimalHolder {
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+    public Map<String, Animal> animals = new LinkedHashMap<>();
+  }
+
+  public abstract static class Animal {
+
+    public String name;
+  }
+
+  public static class Dog extends Animal {
+
+    public int bark;
+
+    public Dog(String name, int bark) {
+      this.name = name;
+      this.bark = bark;
+    }
+  }
+
+  private static ObjectNode largeObject(int size) {
+    return MAPPER.valueToTree(largeMap(size));
+  }
+
+  private static Map<String, Object> largeMap(int size) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      map.put("f" + i, i % 3 == 0 ? Collections.singletonMap("f" + (i % 5), i) : i);
+    }
+    return map;
+  }
+
+  // what filtering did before direct lookups: visit every field
+  private static void retainByIteration(ObjectNode object, TokenFilter filter) {
+    List<String> retained = new ArrayList<>();
+    Iterator<Entry<String, JsonNode>> fields = object.fields();
+    while (fields.hasNext()) {
+      Entry<String, JsonNode> field = fields.next();
+      TokenFilter fieldFilter = filter.includeProperty(field.getKey());
+      if (fieldFilter == null) {
+        continue;
+      }
+
+      retained.add(field.getKey());
+      if (fieldFilter != TokenFilter.INCLUDE_ALL && field.getValue().isObject()) {
+        retainByIteration((ObjectNode) field.getValue(), fieldFilter);
+      }
+    }
+    object.retain(retained);
+  }
+
+  private static PropertyFilter filter(String... properties) {
+    return new PropertyFilter(Arrays.asList(properties));
+  }
+
+  private static String write(ObjectMapper mapper, Object value, PropertyFilter filter)
+    throws IOException {
+    StringWriter out = new StringWriter();
+    try (
+      JsonGenerator generator = new FilteringGeneratorDelegate(
+        mapper.getFactory().createGenerator(out),
+        filter,
+        TokenFilter.Inclusion.INCLUDE_NON_NULL,
+        true
+      )
+    ) {
+      mapper.writeValue(generator, value);
+    }
+    return out.toString();
+  }
+
+  private static JsonNode read(String json) throws IOException {
+    return MAPPER.readTree(json);
+  }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.junit.Test;
 
@@ -14,6 +15,8 @@ public class NestedObjectIntegrationTest extends BaseTest {
     new TypeReference<Map<Long, TestNestedObject>>() {};
   private static final TypeReference<TestNestedObject> NESTED_OBJECT_TYPE =
     new TypeReference<TestNestedObject>() {};
+  private static final TypeReference<LinkedHashMap<String, Object>> ORDERED_MAP_TYPE =
+    new TypeReference<LinkedHashMap<String, Object>>() {};
 
   @Test
   public void testNestedObject() throws IOException {
@@ -49,6 +52,27 @@ public class NestedObjectIntegrationTest extends BaseTest {
     assertThat(object.getName()).isEqualTo("Test 1");
   }
 
+  @Test
+  public void testExcludeAll() throws IOException {
+    Map<Long, TestNestedObject> objects = getObjects(
+      MAP_NESTED_TYPE,
+      "/nested/object",
+      "property",
+      "!*"
+    );
+
+    assertThat(objects).isEmpty();
+  }
+
+  @Test
+  public void testIncludeAll() throws IOException {
+    TestNestedObject object = getObjects(NESTED_OBJECT_TYPE, "/nested", "property", "*");
+
+    assertThat(object.getId()).isEqualTo(1);
+    assertThat(object.getNested()).isNotNull();
+    assertThat(object.getSecondNested()).isNotNull();
+  }
+
   @Test
   public void testNestedPrefixWithoutPeriod() throws IOException {
     // with prefix, should select nested object properties
@@ -223,4 +247,26 @@ public class NestedObjectIntegrationTest extends BaseTest {
     assertThat(objects.get(9L).getId()).isEqualTo(9L);
     assertThat(objects.get(9L).getName()).isEqualTo("Test 9");
   }
+
+  @Test
+  public void testLargeMapKeepsItsOrder() throws IOException {
+    Map<String, Object> map = getObjects(
+      ORDERED_MAP_TYPE,
+      "/map/ordered",
+      "property",
+      "k90",
+      "k10",
+      "k50"
+    );
+
+    assertThat(map.keySet()).containsExactly("k90", "k50", "k10");
+  }
+
+  @Test
+  public void testLargeMapKeepsItsTypeInfo() throws IOException {
+    Map<String, Object> map = getObjects(ORDERED_MAP_TYPE, "/map/typed", "property", "type", "k1");
+
+    assertThat(map).containsOnlyKeys("type", "k1");
+    assertThat(map.get("type")).isEqualTo("typed");
+  }
 }
@@ -0,0 +1,56 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hubspot.jackson.jaxrs.util.TestResource;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestView;
+import java.lang.annotation.Annotation;
+import org.junit.Test;
+
+public class ObjectWriterCacheTest {
+
+  @Test
+  public void itReusesWritersForTheSameMapperAndAnnotations() throws NoSuchMethodException {
+    ObjectWriterCache cache = new ObjectWriterCache(10);
+    ObjectMapper mapper = new ObjectMapper();
+    Annotation[] annotations = annotations("getObjectsWithView");
+
+    ObjectWriter writer = cache.get(mapper, annotations);
+
+    assertThat(writer.getConfig().getActiveView()).isEqualTo(TestView.class);
+    assertThat(cache.get(mapper, annotations)).isSameAs(writer);
+    assertThat(cache.get(new ObjectMapper(), annotations)).isNotSameAs(writer);
+    // equal but distinct arrays are prepared separately
+    assertThat(cache.get(mapper, annotations.clone())).isNotSameAs(writer);
+  }
+
+  @Test
+  public void itHandlesMissingAnnotations() {
+    ObjectWriterCache cache = new ObjectWriterCache(10);
+    ObjectMapper mapper = new ObjectMapper();
+
+    ObjectWriter writer = cache.get(mapper, null);
+
+    assertThat(writer.getConfig().getActiveView()).isNull();
+    assertThat(cache.get(mapper, null)).isSameAs(writer);
+  }
+
+  @Test
+  public void itStaysBounded() throws NoSuchMethodException {
+    ObjectWriterCache cache = new ObjectWriterCache(2);
+    ObjectMapper mapper = new ObjectMapper();
+    Annotation[] annotations = annotations("getObjectsStandard");
+
+    ObjectWriter writer = cache.get(mapper, annotations);
+    cache.get(mapper, annotations.clone());
+    cache.get(mapper, annotations.clone());
+
+    assertThat(cache.get(mapper, annotations)).isNotSameAs(writer);
+  }
+
+  private static Annotation[] annotations(String method) throws NoSuchMethodException {
+    return TestResource.class.getMethod(method).getAnnotations();
+  }
+}
@@ -0,0 +1,57 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelIntegrationTest extends BaseTest {
+
+  @BeforeClass
+  public static void start() throws Exception {
+    start(new ParallelWriter());
+  }
+
+  @Test
+  public void testNestedProperties() throws IOException {
+    assertSameAsSequential("id", "nested.name");
+  }
+
+  @Test
+  public void testExclusions() throws IOException {
+    assertSameAsSequential("!name", "!nested.id", "!secondNested");
+  }
+
+  @Test
+  public void testWildcard() throws IOException {
+    assertSameAsSequential("*.id");
+  }
+
+  private void assertSameAsSequential(String... properties) throws IOException {
+    int chunks = ParallelWriter.CHUNKS.get();
+    String parallel = getBody("/parallel", "property", properties);
+
+    assertThat(ParallelWriter.CHUNKS.get()).isGreaterThan(chunks);
+    assertThat(parallel).isEqualTo(getBody("/parallel/sequential", "property", properties));
+  }
+
+  /**
+   * Counts the chunks its parallel serialization executor runs.
+   */
+  public static class ParallelWriter extends PropertyFilteringMessageBodyWriter {
+
+    private static final AtomicInteger CHUNKS = new AtomicInteger();
+
+    @Override
+    protected Executor getParallelSerializationExecutor() {
+      return task -> {
+        CHUNKS.incrementAndGet();
+        ForkJoinPool.commonPool().execute(task);
+      };
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class PropertyFilterCacheTest {
+
+  @Test
+  public void itReusesFiltersForEquivalentProperties() {
+    PropertyFilterCache cache = new PropertyFilterCache(10, new MetricRegistry());
+
+    PropertyFilter filter = cache.get(Arrays.asList("id", "name"));
+
+    assertThat(cache.get(Arrays.asList("name", "id"))).isSameAs(filter);
+    assertThat(cache.get(Arrays.asList("id", "name", "id", ""))).isSameAs(filter);
+    assertThat(cache.get(Collections.singletonList("id"))).isNotSameAs(filter);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void itCompilesTheCanonicalProperties() {
+    PropertyFilterCache cache = new PropertyFilterCache(10, new MetricRegistry());
+
+    PropertyFilter filter = cache.get(Arrays.asList("name", "!child.id"));
+
+    assertThat(filter.matches("name")).isTrue();
+    assertThat(filter.matches("id")).isFalse();
+    assertThat(filter.matches("child")).isFalse();
+  }
+
+  @Test
+  public void itEvictsOnceFull() {
+    PropertyFilterCache cache = new PropertyFilterCache(2, new MetricRegistry());
+
+    PropertyFilter first = cache.get(Collections.singletonList("a"));
+    cache.get(Collections.singletonList("b"));
+    cache.get(Collections.singletonList("c"));
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get(Collections.singletonList("a"))).isNotSameAs(first);
+  }
+
+  @Test
+  public void itKeepsRecentlyUsedFilters() {
+    PropertyFilterCache cache = new PropertyFilterCache(2, new MetricRegistry());
+
+    PropertyFilter first = cache.get(Collections.singletonList("a"));
+    PropertyFilter second = cache.get(Collections.singletonList("b"));
+    assertThat(cache.get(Collections.singletonList("a"))).isSameAs(first);
+    cache.get(Collections.singletonList("c"));
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get(Collections.singletonList("a"))).isSameAs(first);
+    assertThat(cache.get(Collections.singletonList("b"))).isNotSameAs(second);
+  }
+}
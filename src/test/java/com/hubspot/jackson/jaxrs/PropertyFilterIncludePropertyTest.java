@@ -0,0 +1,70 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class PropertyFilterIncludePropertyTest {
+
+  @Test
+  public void itIncludesEverythingWithoutProperties() {
+    PropertyFilter filter = filter();
+
+    assertThat(filter.includeProperty("propA")).isSameAs(TokenFilter.INCLUDE_ALL);
+  }
+
+  @Test
+  public void itIncludesOnlyNamedProperties() {
+    PropertyFilter filter = filter("propA");
+
+    assertThat(filter.includeProperty("propA")).isSameAs(TokenFilter.INCLUDE_ALL);
+    assertThat(filter.includeProperty("propB")).isNull();
+  }
+
+  @Test
+  public void itExcludesNamedProperties() {
+    PropertyFilter filter = filter("!propA");
+
+    assertThat(filter.includeProperty("propA")).isNull();
+    assertThat(filter.includeProperty("propB")).isSameAs(TokenFilter.INCLUDE_ALL);
+  }
+
+  @Test
+  public void itReturnsNestedFilters() {
+    PropertyFilter filter = filter("propA.key1");
+
+    TokenFilter nested = filter.includeProperty("propA");
+    assertThat(nested).isNotNull();
+    assertThat(nested).isNotSameAs(TokenFilter.INCLUDE_ALL);
+    assertThat(nested.includeProperty("key1")).isSameAs(TokenFilter.INCLUDE_ALL);
+    assertThat(nested.includeProperty("key2")).isNull();
+    assertThat(filter.includeProperty("propB")).isNull();
+  }
+
+  @Test
+  public void itAppliesWildcardsToNamedProperties() {
+    PropertyFilter filter = filter("*.name", "propA.id");
+
+    TokenFilter named = filter.includeProperty("propA");
+    assertThat(named.includeProperty("id")).isSameAs(TokenFilter.INCLUDE_ALL);
+    assertThat(named.includeProperty("name")).isSameAs(TokenFilter.INCLUDE_ALL);
+    assertThat(named.includeProperty("other")).isNull();
+
+    TokenFilter wildcard = filter.includeProperty("propB");
+    assertThat(wildcard.includeProperty("id")).isNull();
+    assertThat(wildcard.includeProperty("name")).isSameAs(TokenFilter.INCLUDE_ALL);
+  }
+
+  @Test
+  public void itReturnsTheSameNestedFilterForEveryCall() {
+    PropertyFilter filter = filter("*.name");
+
+    assertThat(filter.includeProperty("propA")).isSameAs(filter.includeProperty("propB"));
+  }
+
+  private static PropertyFilter filter(String... properties) {
+    return new PropertyFilter(Arrays.asList(properties));
+  }
+}
@@ -0,0 +1,128 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class PropertyFilterIncludesTest {
+
+  @Test
+  public void itIncludesEverythingWhenNoPropertiesSet() {
+    PropertyFilter filter = filter();
+
+    assertThat(filter.getPaths()).isEmpty();
+    assertThat(filter.includes("propA")).isTrue();
+    assertThat(filter.includes("propA.key1")).isTrue();
+    assertThat(filter.includesAll("propA")).isTrue();
+  }
+
+  @Test
+  public void itIncludesPartlyRequestedObjects() {
+    PropertyFilter filter = filter("propA.key1", "propB");
+
+    assertThat(filter.includes("propA")).isTrue();
+    assertThat(filter.includes("propA.key1")).isTrue();
+    assertThat(filter.includes("propA.key2")).isFalse();
+    assertThat(filter.includes("propB.key2")).isTrue();
+    assertThat(filter.includes("propC")).isFalse();
+
+    assertThat(filter.includesAll("propA")).isFalse();
+    assertThat(filter.includesAll("propA.key1")).isTrue();
+    assertThat(filter.includesAll("propB")).isTrue();
+  }
+
+  @Test
+  public void itDoesntIncludeExcludedProperties() {
+    PropertyFilter filter = filter("!propA", "!propB.key1");
+
+    assertThat(filter.includes("propA")).isFalse();
+    assertThat(filter.includes("propA.key1")).isFalse();
+    assertThat(filter.includes("propB")).isTrue();
+    assertThat(filter.includes("propB.key1")).isFalse();
+    assertThat(filter.includes("propB.key2")).isTrue();
+    assertThat(filter.includesAll("propB")).isFalse();
+    assertThat(filter.includesAll("propC")).isTrue();
+  }
+
+  @Test
+  public void itAppliesWildcards() {
+    PropertyFilter filter = filter("*.key1");
+
+    assertThat(filter.includes("propA")).isTrue();
+    assertThat(filter.includes("propA.key1")).isTrue();
+    assertThat(filter.includes("propA.key2")).isFalse();
+  }
+
+  @Test
+  public void itIncludesPathsInSubSequences() {
+    PropertyFilter filter = filter("propA.key1");
+    StringBuilder path = new StringBuilder("propA.key1");
+
+    assertThat(filter.includes(path)).isTrue();
+    path.setLength(5);
+    assertThat(filter.includes(path)).isTrue();
+    path.append(".key2");
+    assertThat(filter.includes(path)).isFalse();
+  }
+
+  @Test
+  public void itIncludesNonAsciiNames() {
+    PropertyFilter filter = filter("prop\u00e9.\u4e2d\u6587", "\ud83d\ude00");
+
+    assertThat(filter.includes("prop\u00e9")).isTrue();
+    assertThat(filter.includes("prop\u00e9.\u4e2d\u6587")).isTrue();
+    assertThat(filter.includes("prop\u00e9.\u4e2d")).isFalse();
+    assertThat(filter.includes("prope")).isFalse();
+    assertThat(filter.includesAll("\ud83d\ude00")).isTrue();
+    assertThat(filter.includes("\ud83d")).isFalse();
+  }
+
+  @Test
+  public void itDoesntAllocateWhenTestingPaths() {
+    com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    PropertyFilter filter = filter("propA.key1", "propB", "!propC.key2");
+    StringBuilder path = new StringBuilder("propA.key1");
+    for (int i = 0; i < 10_000; i++) {
+      includes(filter, path);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10_000; i++) {
+      includes(filter, path);
+    }
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    assertThat(allocated).isLessThan(4096);
+  }
+
+  private static void includes(PropertyFilter filter, StringBuilder path) {
+    if (
+      !filter.includes(path) ||
+      !filter.includesAll(path) ||
+      filter.includes("propA.key2") ||
+      !filter.includes("propB.key2") ||
+      filter.includes("propC.key2")
+    ) {
+      throw new AssertionError(filter);
+    }
+  }
+
+  @Test
+  public void itListsTheRequestedPaths() {
+    PropertyFilter filter = filter("propB", "", "!propA.key2", "propB", "*.key1");
+
+    assertThat(filter.getPaths()).containsExactly("!propA.key2", "*.key1", "propB");
+  }
+
+  private static PropertyFilter filter(String... properties) {
+    return new PropertyFilter(Arrays.asList(properties));
+  }
+}
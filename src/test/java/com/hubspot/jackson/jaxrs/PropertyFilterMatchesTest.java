@@ -49,6 +49,18 @@ public class PropertyFilterMatchesTest {
     assertThat(filter.matches("propB.key2")).isTrue();
   }
 
+  @Test
+  public void itMatchesNestedPropertiesSharingAPrefix() {
+    PropertyFilter filter = filter("propA.key1", "propA.key2.sub", "!propA.key2.other");
+
+    assertThat(filter.matches("propA")).isTrue();
+    assertThat(filter.matches("propA.key1")).isTrue();
+    assertThat(filter.matches("propA.key2.sub")).isTrue();
+    assertThat(filter.matches("propA.key2.other")).isFalse();
+    assertThat(filter.matches("propA.key3")).isFalse();
+    assertThat(filter.matches("propB")).isFalse();
+  }
+
   @Test
   public void itMatchesNestedExcludes() {
     PropertyFilter filter = filter("!propA.key1", "!propB.key2");
@@ -4,8 +4,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 
 public class PropertyFilterTest {
@@ -60,6 +62,53 @@ public class PropertyFilterTest {
     assertThat(node.get("propB").has("key2")).isFalse();
   }
 
+  @Test
+  public void testWildcardInclude() {
+    JsonNode node = filter("*.key1", "!propB");
+
+    assertThat(node.get("propA").get("key1").textValue()).isEqualTo("value1");
+    assertThat(node.get("propA").has("key2")).isFalse();
+    assertThat(node.has("propB")).isFalse();
+  }
+
+  @Test
+  public void testIncludeAll() {
+    assertThat(new PropertyFilter(Arrays.asList("*")).includesAll()).isTrue();
+    assertThat(new PropertyFilter(Arrays.asList("*.*")).includesAll()).isTrue();
+    assertThat(new PropertyFilter(Arrays.asList("*", "!propA")).includesAll()).isFalse();
+    assertThat(new PropertyFilter(Arrays.asList()).includesAll()).isTrue();
+    // still counts as requesting properties
+    assertThat(new PropertyFilter(Arrays.asList("*")).hasFilters()).isTrue();
+    assertThat(new PropertyFilter(Arrays.asList()).hasFilters()).isFalse();
+    assertThat(filter("*")).isEqualTo(node());
+  }
+
+  @Test
+  public void testExcludeAll() {
+    assertThat(new PropertyFilter(Arrays.asList("!*")).excludesAll()).isTrue();
+    assertThat(new PropertyFilter(Arrays.asList("propA", "!*")).excludesAll()).isTrue();
+    assertThat(new PropertyFilter(Arrays.asList("!propA")).excludesAll()).isFalse();
+    assertThat(new PropertyFilter(Arrays.asList("*")).excludesAll()).isFalse();
+    assertThat(filter("!*")).isEqualTo(mapper.createObjectNode());
+  }
+
+  @Test
+  public void testParallelArray() {
+    ArrayNode array = mapper.createArrayNode();
+    for (int i = 0; i < 1000; i++) {
+      array.add(node());
+    }
+    ArrayNode expected = array.deepCopy();
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("propA.key1", "!propA.key2"));
+    filter.filter(expected);
+
+    filter.filter(array, ForkJoinPool.commonPool(), 10);
+
+    assertThat(array).isEqualTo(expected);
+    assertThat(array.get(999).get("propA").get("key1").textValue()).isEqualTo("value1");
+    assertThat(array.get(999).has("propB")).isFalse();
+  }
+
   private static JsonNode filter(String... properties) {
     JsonNode node = node();
 
@@ -0,0 +1,210 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestObject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Test;
+
+public class PropertyFilteringBeanSerializerTest {
+
+  @Test
+  public void itMatchesGeneratorFiltering() throws IOException {
+    ObjectMapper plain = new ObjectMapper();
+    ObjectMapper pruning = PropertyFilteringSerializerModifier.copyWithModifier(plain);
+
+    for (String[] properties : Arrays.asList(
+      new String[] {},
+      new String[] { "id" },
+      new String[] { "!name" },
+      new String[] { "nested.id", "secondNested" },
+      new String[] { "*.name" },
+      new String[] { "!*.name", "!id" },
+      new String[] { "!*" }
+    )) {
+      PropertyFilter filter = new PropertyFilter(Arrays.asList(properties));
+
+      assertThat(write(pruning, filter, objects())).isEqualTo(write(plain, filter, objects()));
+    }
+  }
+
+  @Test
+  public void itReusesPrunedPropertiesAcrossElements() throws IOException {
+    MetricRegistry registry = new MetricRegistry();
+    ObjectMapper mapper = PropertyFilteringSerializerModifier.copyWithModifier(
+      new ObjectMapper(),
+      new PropertyFilteringSerializerModifier(registry)
+    );
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("id", "nested.name"));
+
+    write(mapper, filter, objects());
+    write(mapper, filter, objects());
+
+    // one pruned property list for the outer type, one for the nested type
+    assertThat(registry.meter(metricName("misses")).getCount()).isEqualTo(2);
+    assertThat(registry.meter(metricName("hits")).getCount()).isEqualTo(38);
+    assertThat(registry.getGauges().get(metricName("size")).getValue()).isEqualTo(2);
+  }
+
+  @Test
+  public void itKeepsHotFiltersWhileEvictingOneOffs() throws IOException {
+    MetricRegistry registry = new MetricRegistry();
+    ObjectMapper mapper = PropertyFilteringSerializerModifier.copyWithModifier(
+      new ObjectMapper(),
+      new PropertyFilteringSerializerModifier(registry)
+    );
+    PropertyFilter hot = new PropertyFilter(Arrays.asList("id", "nested.name"));
+    TestNestedObject object = objects().get(0);
+
+    write(mapper, hot, object);
+    for (int i = 0; i < 500; i++) {
+      // filters that aren't cached upstream are a new instance every time
+      write(mapper, new PropertyFilter(Arrays.asList("id")), object);
+      write(mapper, hot, object);
+    }
+
+    // one miss per one-off filter, the hot filter was built once for each type
+    assertThat(registry.meter(metricName("misses")).getCount()).isEqualTo(2 + 500);
+    assertThat(registry.meter(metricName("evictions")).getCount()).isEqualTo(500 + 1 - 64);
+    assertThat((Integer) registry.getGauges().get(metricName("size")).getValue())
+      .isEqualTo(64 + 1);
+  }
+
+  @Test
+  public void itCachesAsManyFiltersAsConfigured() throws IOException {
+    MetricRegistry registry = new MetricRegistry();
+    ObjectMapper mapper = PropertyFilteringSerializerModifier.copyWithModifier(
+      new ObjectMapper(),
+      new PropertyFilteringSerializerModifier(
+        registry,
+        PropertyFilteringSerializerModifier.DEFAULT_SPECIALIZATION_THRESHOLD,
+        8
+      )
+    );
+    TestNestedObject object = objects().get(0);
+
+    for (int i = 0; i < 20; i++) {
+      write(mapper, new PropertyFilter(Arrays.asList("id")), object);
+    }
+
+    assertThat(registry.meter(metricName("evictions")).getCount()).isEqualTo(20 - 8);
+    assertThat((Integer) registry.getGauges().get(metricName("size")).getValue())
+      .isEqualTo(8);
+  }
+
+  @Test
+  public void itSpecializesHotFilters() throws IOException {
+    MetricRegistry registry = new MetricRegistry();
+    ObjectMapper plain = new ObjectMapper();
+    ObjectMapper mapper = PropertyFilteringSerializerModifier.copyWithModifier(
+      plain,
+      new PropertyFilteringSerializerModifier(registry, 5)
+    );
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("id", "nested.name"));
+
+    String expected = write(plain, filter, objects());
+    assertThat(write(mapper, filter, objects())).isEqualTo(expected);
+    assertThat(write(mapper, filter, objects())).isEqualTo(expected);
+
+    assertThat(registry.meter(metricName("specializations")).getCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void itPrunesBeansWithObjectIds() throws IOException {
+    MetricRegistry registry = new MetricRegistry();
+    ObjectMapper plain = new ObjectMapper();
+    ObjectMapper mapper = PropertyFilteringSerializerModifier.copyWithModifier(
+      plain,
+      new PropertyFilteringSerializerModifier(registry)
+    );
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("id"));
+    IdentifiedObject object = new IdentifiedObject(1, "Test");
+    List<IdentifiedObject> objects = Arrays.asList(object, object);
+
+    assertThat(write(mapper, filter, objects)).isEqualTo(write(plain, filter, objects));
+    assertThat(registry.meter(metricName("misses")).getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void itGeneratesDirectAccessorsForGetters() throws IOException {
+    BeanSerializer serializer = (BeanSerializer) new ObjectMapper()
+      .getSerializerProviderInstance()
+      .findValueSerializer(TestObject.class);
+
+    Iterator<PropertyWriter> properties = serializer.properties();
+    while (properties.hasNext()) {
+      BeanPropertyWriter property = (BeanPropertyWriter) properties.next();
+
+      assertThat(DirectAccessBeanPropertyWriter.tryCreate(property))
+        .isInstanceOf(DirectAccessBeanPropertyWriter.class);
+    }
+  }
+
+  private static String write(ObjectMapper mapper, PropertyFilter filter, Object value)
+    throws IOException {
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = new FilteringGeneratorDelegate(
+      mapper.getFactory().createGenerator(writer),
+      filter,
+      TokenFilter.Inclusion.INCLUDE_NON_NULL,
+      true
+    );
+    mapper.writeValue(generator, value);
+    return writer.toString();
+  }
+
+  private static List<TestNestedObject> objects() {
+    List<TestNestedObject> objects = new ArrayList<>();
+    for (long i = 0; i < 10; i++) {
+      objects.add(
+        new TestNestedObject(
+          i,
+          "Test " + i,
+          new TestObject(i * 100, "Nested " + i),
+          new TestObject(i * 1_000, "Second " + i)
+        )
+      );
+    }
+    return objects;
+  }
+
+  private static String metricName(String name) {
+    return MetricRegistry.name(PropertyFilteringBeanSerializer.class, name);
+  }
+
+  @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+  public static class IdentifiedObject {
+
+    private final long id;
+    private final String name;
+
+    public IdentifiedObject(long id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    public long getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hubspot.jackson.jaxrs.util.TestResource;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestView;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import org.junit.Test;
+
+public class PropertyFilteringBindingTest {
+
+  @Test
+  public void itOnlyBindsAnnotatedMethods() throws NoSuchMethodException {
+    assertThat(PropertyFilteringBinding.forMethod(method("getObjectsStandard"))).isNotNull();
+    assertThat(PropertyFilteringBinding.forMethod(Object.class.getMethod("toString")))
+      .isNull();
+  }
+
+  @Test
+  public void itAppliesToTheMethodsOwnAnnotations() throws NoSuchMethodException {
+    Method method = method("getObjectsCustomQueryParam");
+    PropertyFilteringBinding binding = PropertyFilteringBinding.forMethod(method);
+
+    assertThat(binding.getAnnotation().using()).isEqualTo("custom");
+    assertThat(binding.appliesTo(method.getAnnotations())).isTrue();
+    assertThat(binding.appliesTo(method("getObjectsStandard").getAnnotations())).isFalse();
+    assertThat(binding.appliesTo(new Annotation[0])).isFalse();
+    assertThat(binding.appliesTo(null)).isFalse();
+  }
+
+  @Test
+  public void itPreparesWritersOncePerMapper() throws NoSuchMethodException {
+    PropertyFilteringBinding binding = PropertyFilteringBinding.forMethod(
+      method("getObjectsWithView")
+    );
+    ObjectMapper mapper = new ObjectMapper();
+
+    ObjectWriter writer = binding.getWriter(mapper);
+
+    assertThat(writer.getConfig().getActiveView()).isEqualTo(TestView.class);
+    assertThat(binding.getWriter(mapper)).isSameAs(writer);
+    assertThat(binding.getWriter(new ObjectMapper())).isNotSameAs(writer);
+  }
+
+  @Test
+  public void itChecksEachEntityTypeOnce() throws NoSuchMethodException {
+    PropertyFilteringBinding binding = PropertyFilteringBinding.forMethod(
+      method("getObjectsStandard")
+    );
+    AtomicInteger checks = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(
+        binding.isWriteable(
+          List.class,
+          List.class,
+          MediaType.APPLICATION_JSON_TYPE,
+          () -> checks.incrementAndGet() > 0
+        )
+      )
+        .isTrue();
+      assertThat(
+        binding.isWriteable(
+          String.class,
+          String.class,
+          MediaType.APPLICATION_JSON_TYPE,
+          () -> checks.incrementAndGet() < 0
+        )
+      )
+        .isFalse();
+    }
+    assertThat(checks.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void itChecksEachMediaTypeAndGenericTypeSeparately() throws NoSuchMethodException {
+    Method method = method("getNestedObjectsList");
+    PropertyFilteringBinding binding = PropertyFilteringBinding.forMethod(method);
+    PropertyFilteringMessageBodyWriter writer = new PropertyFilteringMessageBodyWriter() {
+      @Override
+      protected boolean filteringEnabled(
+        Class<?> type,
+        Type genericType,
+        Annotation[] annotations,
+        MediaType mediaType
+      ) {
+        return (
+          genericType == method.getGenericReturnType() &&
+          !mediaType.getSubtype().equals("x-ndjson")
+        );
+      }
+    };
+    writer.request = requestBoundTo(binding);
+    MediaType lines = MediaType.valueOf(PropertyFilteringMessageBodyWriter.APPLICATION_NDJSON);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(
+        writer.isWriteable(
+          List.class,
+          method.getGenericReturnType(),
+          method.getAnnotations(),
+          MediaType.APPLICATION_JSON_TYPE
+        )
+      )
+        .isTrue();
+      assertThat(
+        writer.isWriteable(
+          List.class,
+          method.getGenericReturnType(),
+          method.getAnnotations(),
+          lines
+        )
+      )
+        .isFalse();
+      assertThat(
+        writer.isWriteable(
+          List.class,
+          List.class,
+          method.getAnnotations(),
+          MediaType.APPLICATION_JSON_TYPE
+        )
+      )
+        .isFalse();
+    }
+  }
+
+  @Test
+  public void itAsksTheWriterWhetherEachEntityTypeIsFiltered() throws NoSuchMethodException {
+    Method method = method("getNestedObject");
+    PropertyFilteringBinding binding = PropertyFilteringBinding.forMethod(method);
+    AtomicInteger checks = new AtomicInteger();
+    PropertyFilteringMessageBodyWriter writer = new PropertyFilteringMessageBodyWriter() {
+      @Override
+      protected boolean filteringEnabled(
+        Class<?> type,
+        Type genericType,
+        Annotation[] annotations,
+        MediaType mediaType
+      ) {
+        checks.incrementAndGet();
+        return type != TestNestedObject.class;
+      }
+    };
+    writer.request = requestBoundTo(binding);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(
+        writer.isWriteable(
+          TestNestedObject.class,
+          TestNestedObject.class,
+          method.getAnnotations(),
+          MediaType.APPLICATION_JSON_TYPE
+        )
+      )
+        .isFalse();
+      assertThat(
+        writer.isWriteable(
+          List.class,
+          List.class,
+          method.getAnnotations(),
+          MediaType.APPLICATION_JSON_TYPE
+        )
+      )
+        .isTrue();
+    }
+    assertThat(checks.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void itDetectsAsyncMethods() throws NoSuchMethodException {
+    assertThat(
+      PropertyFilteringBinding.isAsync(
+        PropertyFilteringBindingTest.class.getMethod("getCompletion")
+      )
+    )
+      .isTrue();
+    assertThat(
+      PropertyFilteringBinding.isAsync(
+        TestResource.class.getMethod("getNestedObjectsAsync", AsyncResponse.class)
+      )
+    )
+      .isTrue();
+    assertThat(PropertyFilteringBinding.isAsync(method("getNestedObjectsList"))).isFalse();
+  }
+
+  // JAX-RS 2.1 runtimes resume methods like this one, Jersey 2.25 doesn't know about them yet
+  public static CompletionStage<List<String>> getCompletion() {
+    return CompletableFuture.completedFuture(Collections.emptyList());
+  }
+
+  private static HttpServletRequest requestBoundTo(PropertyFilteringBinding binding) {
+    return (HttpServletRequest) Proxy.newProxyInstance(
+      HttpServletRequest.class.getClassLoader(),
+      new Class<?>[] { HttpServletRequest.class },
+      (proxy, method, args) ->
+        method.getName().equals("getAttribute") &&
+          PropertyFilteringBinding.PROPERTY_NAME.equals(args[0])
+          ? binding
+          : null
+    );
+  }
+
+  private static Method method(String name) throws NoSuchMethodException {
+    return TestResource.class.getMethod(name);
+  }
+}
@@ -0,0 +1,131 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class PropertyFilteringGeneratorTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final ObjectMapper MODIFIED_MAPPER =
+    PropertyFilteringSerializerModifier.copyWithModifier(MAPPER);
+
+  @Test
+  public void itWritesTheSameAsFilteringGeneratorDelegate() throws IOException {
+    JsonNode tree = MAPPER.readTree(
+      "{\"id\":1,\"name\":\"a\",\"nested\":{\"id\":2,\"name\":null,\"list\":[{\"id\":3}," +
+      "{\"name\":\"b\"},[4,5],null]},\"list\":[{\"id\":6,\"nested\":{\"id\":7}},8]}"
+    );
+    Item item = new Item(1, new Item(2, null), Arrays.asList(new Item(3, null), null));
+
+    for (List<String> properties : Arrays.asList(
+      Arrays.asList("id"),
+      Arrays.asList("!name"),
+      Arrays.asList("nested.id", "list.nested"),
+      Arrays.asList("*.id", "!nested.list"),
+      Arrays.asList("!*"),
+      Arrays.asList("*")
+    )) {
+      PropertyFilter filter = new PropertyFilter(properties);
+      for (ObjectMapper mapper : Arrays.asList(MAPPER, MODIFIED_MAPPER)) {
+        assertThat(write(mapper, tree, filter)).isEqualTo(writeDelegate(mapper, tree, filter));
+        assertThat(write(mapper, item, filter)).isEqualTo(writeDelegate(mapper, item, filter));
+      }
+    }
+  }
+
+  @Test
+  public void itFiltersPrimitiveArrays() throws IOException {
+    Map<String, Object> value = Map.of("ids", new int[] { 1, 2 }, "names", new String[] { "a" });
+
+    assertThat(write(MAPPER, value, new PropertyFilter(Arrays.asList("ids"))))
+      .isEqualTo("{\"ids\":[1,2]}");
+    assertThat(write(MAPPER, value, new PropertyFilter(Arrays.asList("!ids"))))
+      .isEqualTo("{\"names\":[\"a\"]}");
+  }
+
+  @Test
+  public void itTracksTheCurrentObjectFilter() throws IOException {
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("nested.id", "!other"));
+    PropertyFilteringGenerator generator = new PropertyFilteringGenerator(
+      MAPPER.getFactory().createGenerator(new StringWriter()),
+      filter
+    );
+
+    generator.writeStartObject();
+    assertThat(generator.currentObjectFilter().includeProperty("nested")).isNotNull();
+
+    generator.writeFieldName("nested");
+    generator.writeStartObject();
+    assertThat(generator.currentObjectFilter().includeProperty("id"))
+      .isSameAs(TokenFilter.INCLUDE_ALL);
+    assertThat(generator.currentObjectFilter().includeProperty("name")).isNull();
+    generator.writeEndObject();
+
+    generator.writeFieldName("other");
+    generator.writeStartObject();
+    assertThat(generator.currentObjectFilter()).isNull();
+    generator.writeEndObject();
+
+    assertThat(generator.currentObjectFilter().includeProperty("nested")).isNotNull();
+  }
+
+  private static String write(ObjectMapper mapper, Object value, PropertyFilter filter)
+    throws IOException {
+    StringWriter writer = new StringWriter();
+    try (
+      JsonGenerator generator = new PropertyFilteringGenerator(
+        mapper.getFactory().createGenerator(writer),
+        filter
+      )
+    ) {
+      mapper.writeValue(generator, value);
+    }
+    return writer.toString();
+  }
+
+  private static String writeDelegate(ObjectMapper mapper, Object value, PropertyFilter filter)
+    throws IOException {
+    StringWriter writer = new StringWriter();
+    try (
+      JsonGenerator generator = new FilteringGeneratorDelegate(
+        mapper.getFactory().createGenerator(writer),
+        filter,
+        TokenFilter.Inclusion.INCLUDE_NON_NULL,
+        true
+      )
+    ) {
+      mapper.writeValue(generator, value);
+    }
+    return writer.toString();
+  }
+
+  public static class Item {
+
+    public final long id;
+    public final String name;
+    public final Item nested;
+    public final List<Item> list;
+
+    public Item(long id, Item nested) {
+      this(id, nested, null);
+    }
+
+    public Item(long id, Item nested, List<Item> list) {
+      this.id = id;
+      this.name = "Item " + id;
+      this.nested = nested;
+      this.list = list;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class PropertyFilteringSerializerModifierTest {
+
+  private static final ObjectMapper MAPPER = PropertyFilteringSerializerModifier.copyWithModifier(
+    new ObjectMapper()
+  );
+
+  @Test
+  public void itSkipsGettersOfExcludedProperties() throws IOException {
+    CountingObject object = new CountingObject(new CountingObject(null));
+
+    String json = write(object, "id");
+
+    assertThat(json).isEqualTo("{\"id\":1}");
+    assertThat(object.expensiveCalls.get()).isEqualTo(0);
+    assertThat(object.childCalls.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void itSkipsGettersOfExcludedNestedProperties() throws IOException {
+    CountingObject child = new CountingObject(null);
+    CountingObject object = new CountingObject(child);
+
+    String json = write(object, "child.id", "!child.expensive");
+
+    assertThat(json).isEqualTo("{\"child\":{\"id\":1}}");
+    assertThat(object.expensiveCalls.get()).isEqualTo(0);
+    assertThat(object.childCalls.get()).isEqualTo(1);
+    assertThat(child.expensiveCalls.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void itMatchesGeneratorFiltering() throws IOException {
+    CountingObject object = new CountingObject(new CountingObject(null));
+    ObjectMapper plain = new ObjectMapper();
+
+    for (String[] properties : Arrays.asList(
+      new String[] {},
+      new String[] { "!id" },
+      new String[] { "*.id" },
+      new String[] { "child", "!child.child" },
+      new String[] { "!*" }
+    )) {
+      assertThat(write(MAPPER, object, properties))
+        .isEqualTo(write(plain, object, properties));
+    }
+  }
+
+  @Test
+  public void itFiltersUnwrappedProperties() throws IOException {
+    UnwrappingObject object = new UnwrappingObject(new CountingObject(null));
+
+    String json = write(object, "id");
+
+    assertThat(json).isEqualTo("{\"id\":1}");
+    assertThat(object.wrapped.expensiveCalls.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void itDoesNothingWithoutFiltering() throws IOException {
+    CountingObject object = new CountingObject(null);
+
+    String json = MAPPER.writeValueAsString(object);
+
+    assertThat(object.expensiveCalls.get()).isEqualTo(1);
+    assertThat(json).isEqualTo(new ObjectMapper().writeValueAsString(object));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void itRejectsMappersThatCantBeCopied() {
+    PropertyFilteringSerializerModifier.copyWithModifier(new ObjectMapper() {});
+  }
+
+  private static String write(Object value, String... properties) throws IOException {
+    return write(MAPPER, value, properties);
+  }
+
+  private static String write(ObjectMapper mapper, Object value, String... properties)
+    throws IOException {
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = new FilteringGeneratorDelegate(
+      mapper.getFactory().createGenerator(writer),
+      new PropertyFilter(Arrays.asList(properties)),
+      TokenFilter.Inclusion.INCLUDE_NON_NULL,
+      true
+    );
+    mapper.writeValue(generator, value);
+    return writer.toString();
+  }
+
+  public static class CountingObject {
+
+    private final CountingObject child;
+    private final AtomicInteger expensiveCalls = new AtomicInteger();
+    private final AtomicInteger childCalls = new AtomicInteger();
+
+    public CountingObject(CountingObject child) {
+      this.child = child;
+    }
+
+    public long getId() {
+      return 1;
+    }
+
+    public String getExpensive() {
+      expensiveCalls.incrementAndGet();
+      return "expensive";
+    }
+
+    public CountingObject getChild() {
+      childCalls.incrementAndGet();
+      return child;
+    }
+  }
+
+  public static class UnwrappingObject {
+
+    private final CountingObject wrapped;
+
+    public UnwrappingObject(CountingObject wrapped) {
+      this.wrapped = wrapped;
+    }
+
+    @JsonUnwrapped
+    public CountingObject getWrapped() {
+      return wrapped;
+    }
+  }
+}
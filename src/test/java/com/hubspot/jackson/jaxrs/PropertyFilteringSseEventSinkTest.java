@@ -0,0 +1,339 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hubspot.jackson.jaxrs.util.TestResource;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestObject;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseBroadcaster;
+import javax.ws.rs.sse.SseEventSink;
+import org.junit.Test;
+
+public class PropertyFilteringSseEventSinkTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final Sse SSE = new TestSse();
+
+  @Test
+  public void itFiltersEveryJsonEvent() {
+    TestSink sink = new TestSink();
+    PropertyFilteringSseEventSink filteringSink = new PropertyFilteringSseEventSink(
+      sink,
+      SSE,
+      MAPPER,
+      new PropertyFilter(Arrays.asList("id", "nested.name"))
+    );
+
+    for (long i = 0; i < 3; i++) {
+      filteringSink.send(
+        SSE
+          .newEventBuilder()
+          .id(Long.toString(i))
+          .name("update")
+          .reconnectDelay(1_000)
+          .mediaType(MediaType.APPLICATION_JSON_TYPE)
+          .data(TestNestedObject.class, object(i))
+          .build()
+      );
+    }
+
+    assertThat(sink.events).hasSize(3);
+    for (int i = 0; i < 3; i++) {
+      OutboundSseEvent event = sink.events.get(i);
+      assertThat(event.getData())
+        .isEqualTo("{\"id\":" + i + ",\"nested\":{\"name\":\"Nested " + i + "\"}}");
+      assertThat(event.getMediaType()).isEqualTo(MediaType.TEXT_PLAIN_TYPE);
+      assertThat(event.getId()).isEqualTo(Integer.toString(i));
+      assertThat(event.getName()).isEqualTo("update");
+      assertThat(event.getReconnectDelay()).isEqualTo(1_000);
+    }
+  }
+
+  @Test
+  public void itFiltersRawJsonEvents() {
+    TestSink sink = new TestSink();
+    PropertyFilteringSseEventSink filteringSink = new PropertyFilteringSseEventSink(
+      sink,
+      SSE,
+      MAPPER,
+      new PropertyFilter(Collections.singletonList("!name"))
+    );
+
+    filteringSink.send(
+      SSE
+        .newEventBuilder()
+        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+        .data(String.class, "{\"id\":1,\"name\":\"Test\"}")
+        .build()
+    );
+
+    assertThat(sink.events.get(0).getData()).isEqualTo("{\"id\":1}");
+  }
+
+  @Test
+  public void itUsesTheFilterAndViewOfTheBoundRequest() throws NoSuchMethodException {
+    TestSink sink = new TestSink();
+    PropertyFilteringBinding binding = PropertyFilteringBinding.forMethod(
+      TestResource.class.getMethod("getObjectsWithView")
+    );
+    PropertyFilteringSseEventSink filteringSink = PropertyFilteringSseEventSink.forRequest(
+      sink,
+      SSE,
+      MAPPER,
+      request(binding, new PropertyFilter(Collections.emptyList()))
+    );
+
+    filteringSink.send(
+      SSE
+        .newEventBuilder()
+        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+        .data(TestObject.class, new TestObject(1L, "Test"))
+        .build()
+    );
+
+    // no properties requested, but the method's view still hides the name
+    assertThat(sink.events.get(0).getData()).isEqualTo("{\"id\":1}");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void itRejectsUnboundRequests() {
+    PropertyFilteringSseEventSink.forRequest(new TestSink(), SSE, MAPPER, request(null, null));
+  }
+
+  @Test
+  public void itPassesOtherEventsThrough() {
+    TestSink sink = new TestSink();
+    PropertyFilteringSseEventSink filteringSink = new PropertyFilteringSseEventSink(
+      sink,
+      SSE,
+      MAPPER,
+      new PropertyFilter(Collections.singletonList("id"))
+    );
+    OutboundSseEvent text = SSE.newEvent("ping");
+    OutboundSseEvent comment = SSE.newEventBuilder().comment("keep-alive").build();
+
+    filteringSink.send(text);
+    filteringSink.send(comment);
+
+    assertThat(sink.events).containsExactly(text, comment);
+  }
+
+  @Test
+  public void itRecoversFromFailedEvents() throws Exception {
+    TestSink sink = new TestSink();
+    PropertyFilteringSseEventSink filteringSink = new PropertyFilteringSseEventSink(
+      sink,
+      SSE,
+      MAPPER,
+      new PropertyFilter(Collections.singletonList("id"))
+    );
+
+    CompletionStage<?> failed = filteringSink.send(
+      SSE
+        .newEventBuilder()
+        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+        .data(Object.class, new Object())
+        .build()
+    );
+    filteringSink.send(
+      SSE
+        .newEventBuilder()
+        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+        .data(TestNestedObject.class, object(1))
+        .build()
+    );
+
+    assertThat(failed.toCompletableFuture().isCompletedExceptionally()).isTrue();
+    assertThat(sink.events).hasSize(1);
+    assertThat(sink.events.get(0).getData()).isEqualTo("{\"id\":1}");
+  }
+
+  private static HttpServletRequest request(
+    PropertyFilteringBinding binding,
+    PropertyFilter filter
+  ) {
+    return (HttpServletRequest) Proxy.newProxyInstance(
+      HttpServletRequest.class.getClassLoader(),
+      new Class<?>[] { HttpServletRequest.class },
+      (proxy, method, args) -> {
+        if (!method.getName().equals("getAttribute")) {
+          return null;
+        } else if (PropertyFilteringBinding.PROPERTY_NAME.equals(args[0])) {
+          return binding;
+        } else if (PropertyFilter.PROPERTY_NAME.equals(args[0])) {
+          return filter;
+        } else {
+          return null;
+        }
+      }
+    );
+  }
+
+  private static TestNestedObject object(long i) {
+    return new TestNestedObject(
+      i,
+      "Test " + i,
+      new TestObject(i * 100, "Nested " + i),
+      new TestObject(i * 1_000, "Second " + i)
+    );
+  }
+
+  private static class TestSink implements SseEventSink {
+
+    private final List<OutboundSseEvent> events = new ArrayList<>();
+    private boolean closed;
+
+    @Override
+    public boolean isClosed() {
+      return closed;
+    }
+
+    @Override
+    public CompletionStage<?> send(OutboundSseEvent event) {
+      events.add(event);
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static class TestSse implements Sse {
+
+    @Override
+    public OutboundSseEvent.Builder newEventBuilder() {
+      return new TestEvent();
+    }
+
+    @Override
+    public SseBroadcaster newBroadcaster() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static class TestEvent implements OutboundSseEvent, OutboundSseEvent.Builder {
+
+    private String id;
+    private String name;
+    private String comment;
+    private long reconnectDelay = RECONNECT_NOT_SET;
+    private MediaType mediaType = MediaType.TEXT_PLAIN_TYPE;
+    private Class<?> type;
+    private Object data;
+
+    @Override
+    public Builder id(String id) {
+      this.id = id;
+      return this;
+    }
+
+    @Override
+    public Builder name(String name) {
+      this.name = name;
+      return this;
+    }
+
+    @Override
+    public Builder reconnectDelay(long reconnectDelay) {
+      this.reconnectDelay = reconnectDelay;
+      return this;
+    }
+
+    @Override
+    public Builder mediaType(MediaType mediaType) {
+      this.mediaType = mediaType;
+      return this;
+    }
+
+    @Override
+    public Builder comment(String comment) {
+      this.comment = comment;
+      return this;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Builder data(Class type, Object data) {
+      this.type = type;
+      this.data = data;
+      return this;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Builder data(GenericType type, Object data) {
+      return data(type.getRawType(), data);
+    }
+
+    @Override
+    public Builder data(Object data) {
+      return data(data.getClass(), data);
+    }
+
+    @Override
+    public OutboundSseEvent build() {
+      return this;
+    }
+
+    @Override
+    public Class<?> getType() {
+      return type;
+    }
+
+    @Override
+    public Type getGenericType() {
+      return type;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+      return mediaType;
+    }
+
+    @Override
+    public Object getData() {
+      return data;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public String getComment() {
+      return comment;
+    }
+
+    @Override
+    public long getReconnectDelay() {
+      return reconnectDelay;
+    }
+
+    @Override
+    public boolean isReconnectDelaySet() {
+      return reconnectDelay != RECONNECT_NOT_SET;
+    }
+  }
+}
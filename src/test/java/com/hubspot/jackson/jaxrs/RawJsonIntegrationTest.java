@@ -0,0 +1,89 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import java.io.IOException;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RawJsonIntegrationTest extends BaseTest {
+
+  private static final TypeReference<List<TestNestedObject>> LIST_NESTED_TYPE =
+    new TypeReference<List<TestNestedObject>>() {};
+
+  @BeforeClass
+  public static void start() throws Exception {
+    PropertyFilteringMessageBodyWriter writer = new PropertyFilteringMessageBodyWriter();
+    start(
+      writer,
+      new RawJsonMessageBodyWriter.ForBytes(writer),
+      new RawJsonMessageBodyWriter.ForString(writer),
+      new RawJsonMessageBodyWriter.ForInputStream(writer)
+    );
+  }
+
+  @Test
+  public void testRawBytes() throws IOException {
+    assertFiltered("/raw/bytes");
+  }
+
+  @Test
+  public void testRawString() throws IOException {
+    assertFiltered("/raw/string");
+  }
+
+  @Test
+  public void testRawStream() throws IOException {
+    assertFiltered("/raw/stream");
+  }
+
+  @Test
+  public void testRawUnfiltered() throws IOException {
+    List<TestNestedObject> objects = getObjects(LIST_NESTED_TYPE, "/raw/bytes", "property");
+
+    assertThat(objects).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(objects.get(i).getId()).isEqualTo(i);
+      assertThat(objects.get(i).getName()).isEqualTo("Test " + i);
+      assertThat(objects.get(i).getNested().getId()).isEqualTo(i * 100);
+      assertThat(objects.get(i).getSecondNested().getId()).isEqualTo(i * 1_000);
+    }
+  }
+
+  @Test
+  public void testRawUnannotated() throws IOException {
+    List<TestNestedObject> objects = getObjects(
+      LIST_NESTED_TYPE,
+      "/raw/unannotated",
+      "property",
+      "id"
+    );
+
+    assertThat(objects).hasSize(10);
+    assertThat(objects.get(0).getName()).isEqualTo("Test 0");
+  }
+
+  private void assertFiltered(String path) throws IOException {
+    List<TestNestedObject> objects = getObjects(
+      LIST_NESTED_TYPE,
+      path,
+      "property",
+      "id",
+      "nested.name"
+    );
+
+    assertThat(objects).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      TestNestedObject object = objects.get(i);
+
+      assertThat(object.getId()).isEqualTo(i);
+      assertThat(object.getName()).isNull();
+      assertThat(object.getNested().getId()).isNull();
+      assertThat(object.getNested().getName()).isEqualTo("Nested Test " + i * 100);
+      assertThat(object.getSecondNested()).isNull();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class RawJsonScannerTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static final String JSON =
+    "[{\"id\":1,\"name\":\"Test \\\"1\\\"\",\"nested\":{\"id\":100,\"name\":\"Nested\"," +
+    "\"tags\":[\"a]\",{\"b\":\"}\"}]},\"secondNested\":null}," +
+    "{\"id\":2,\"name\":\"Test 2\",\"nested\":{\"id\":200,\"name\":\"Nested\",\"tags\":[]}," +
+    "\"secondNested\":{\"id\":2000,\"name\":\"Second\"}}]";
+
+  @Test
+  public void itMatchesStreamingFiltering() throws IOException {
+    for (String[] properties : Arrays.asList(
+      new String[] { "id" },
+      new String[] { "!name" },
+      new String[] { "nested.id", "secondNested" },
+      new String[] { "nested.tags" },
+      new String[] { "*.name" },
+      new String[] { "!*.name", "!id" },
+      new String[] { "!*" }
+    )) {
+      PropertyFilter filter = new PropertyFilter(Arrays.asList(properties));
+
+      assertThat(scan(JSON, filter)).isEqualTo(stream(JSON, filter));
+    }
+  }
+
+  @Test
+  public void itCopiesIncludedValuesAsIs() throws IOException {
+    String json = "{ \"id\" : 1 ,\n \"nested\" : { \"id\" : 2, \"name\" : \"x\" } }";
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("nested", "!nested.name"));
+
+    assertThat(scan(json, filter)).isEqualTo("{\"nested\":{\"id\":2}}");
+    assertThat(scan(json, new PropertyFilter(Arrays.asList("nested"))))
+      .isEqualTo("{\"nested\":{ \"id\" : 2, \"name\" : \"x\" }}");
+  }
+
+  @Test
+  public void itMatchesEscapedAndNonAsciiNames() throws IOException {
+    // the first name is escaped in the JSON, the second one is raw UTF-8
+    String json = "{\"caf\\u00e9\":1,\"caf\u00e9\":2,\"other\":3}";
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("caf\u00e9"));
+
+    assertThat(scan(json, filter)).isEqualTo("{\"caf\\u00e9\":1,\"caf\u00e9\":2}");
+  }
+
+  @Test(expected = JsonParseException.class)
+  public void itRejectsTruncatedDocuments() throws IOException {
+    scan("{\"id\":1,\"nested\":{\"id\":", new PropertyFilter(Arrays.asList("id")));
+  }
+
+  private static String scan(String json, PropertyFilter filter) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    RawJsonScanner.write(json, filter, output);
+    return output.toString("UTF-8");
+  }
+
+  private static String stream(String json, PropertyFilter filter) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    RawJsonWriter.write(json, filter, MAPPER.getFactory(), output);
+    return output.toString("UTF-8");
+  }
+}
@@ -0,0 +1,70 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Same as {@link RawJsonIntegrationTest}, with {@link RawJsonScanner} doing the filtering. The
+ * scanner copies included values as they are, whitespace and escapes and all, which tells its
+ * output apart from that of a tokenizing filter.
+ */
+public class RawJsonScanningIntegrationTest extends RawJsonIntegrationTest {
+
+  @BeforeClass
+  public static void start() throws Exception {
+    PropertyFilteringMessageBodyWriter writer = new ScanningWriter();
+    start(
+      writer,
+      new PropertyFilteringFeature(),
+      new RawJsonMessageBodyWriter.ForBytes(writer),
+      new RawJsonMessageBodyWriter.ForString(writer),
+      new RawJsonMessageBodyWriter.ForInputStream(writer)
+    );
+  }
+
+  @Test
+  public void testScannedNestedObjects() throws IOException {
+    assertThat(getBody("/raw/document", "property", "id", "nested.name", "nested.tags"))
+      .isEqualTo("{\"id\":1,\"nested\":{\"name\":\"Nested\",\"tags\":[ \"a\", \"b\" ]}}");
+  }
+
+  @Test
+  public void testScannedArrays() throws IOException {
+    assertThat(getBody("/raw/document", "property", "list.id", "last"))
+      .isEqualTo("{\"list\":[{\"id\":2},{\"id\":3}],\"last\":true}");
+  }
+
+  @Test
+  public void testScannedEscapedKeys() throws IOException {
+    assertThat(getBody("/raw/document", "property", "name"))
+      .isEqualTo("{\"na\\u006de\":\"Test \\\"1\\\"\"}");
+  }
+
+  @Test
+  public void testScannedExcludedSubtrees() throws IOException {
+    assertThat(getBody("/raw/document", "property", "!secondNested", "!nested.name", "!list"))
+      .isEqualTo(
+        "{\"id\":1,\"na\\u006de\":\"Test \\\"1\\\"\"," +
+        "\"nested\":{\"id\":100,\"tags\":[ \"a\", \"b\" ]},\"last\":true}"
+      );
+  }
+
+  @Test
+  public void testScannedIncludedSubtree() throws IOException {
+    assertThat(getBody("/raw/document", "property", "list"))
+      .isEqualTo(
+        "{\"list\":[ { \"id\" : 2, \"name\" : \"x\" }, { \"id\" : 3, \"name\" : \"y\" } ]}"
+      );
+  }
+
+  public static class ScanningWriter extends PropertyFilteringMessageBodyWriter {
+
+    @Override
+    protected boolean rawJsonScanningEnabled() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Without the raw JSON writers registered, pre-serialized entities are written as they are.
+ */
+public class RawJsonUnregisteredTest extends BaseTest {
+
+  private static final TypeReference<List<TestNestedObject>> LIST_NESTED_TYPE =
+    new TypeReference<List<TestNestedObject>>() {};
+
+  @Test
+  public void testRawBytesNotFiltered() throws IOException {
+    assertNotFiltered("/raw/bytes");
+  }
+
+  @Test
+  public void testRawStringNotFiltered() throws IOException {
+    assertNotFiltered("/raw/string");
+  }
+
+  private void assertNotFiltered(String path) throws IOException {
+    List<TestNestedObject> objects = getObjects(LIST_NESTED_TYPE, path, "property", "id");
+
+    assertThat(objects).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(objects.get(i).getName()).isEqualTo("Test " + i);
+      assertThat(objects.get(i).getNested().getName()).isEqualTo("Nested Test " + i * 100);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestObject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class RawJsonWriterTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  public void itMatchesSerializedFiltering() throws IOException {
+    byte[] json = MAPPER.writeValueAsBytes(objects());
+
+    for (String[] properties : Arrays.asList(
+      new String[] { "id" },
+      new String[] { "!name" },
+      new String[] { "nested.id", "secondNested" },
+      new String[] { "*.name" },
+      new String[] { "!*.name", "!id" },
+      new String[] { "!*" }
+    )) {
+      PropertyFilter filter = new PropertyFilter(Arrays.asList(properties));
+
+      assertThat(writeRaw(json, filter)).isEqualTo(writeSerialized(objects(), filter));
+    }
+  }
+
+  @Test
+  public void itFiltersStringsAndStreams() throws IOException {
+    String json = "{\"id\":1,\"name\":\"Test\",\"nested\":{\"id\":2,\"name\":\"Nested\"}}";
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("id", "nested.name"));
+    String expected = "{\"id\":1,\"nested\":{\"name\":\"Nested\"}}";
+
+    assertThat(writeRaw(json, filter)).isEqualTo(expected);
+
+    AtomicBoolean closed = new AtomicBoolean();
+    ByteArrayInputStream stream = new ByteArrayInputStream(
+      json.getBytes(StandardCharsets.UTF_8)
+    ) {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+    assertThat(writeRaw(stream, filter)).isEqualTo(expected);
+    assertThat(closed.get()).isTrue();
+  }
+
+  @Test
+  public void itPreservesNumbersExactly() throws IOException {
+    String json = "{\"id\":12345678901234567890,\"value\":1.10,\"name\":\"x\"}";
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("!name"));
+
+    assertThat(writeRaw(json, filter))
+      .isEqualTo("{\"id\":12345678901234567890,\"value\":1.10}");
+  }
+
+  @Test
+  public void itCopiesUnfilteredEntitiesAsIs() throws IOException {
+    String json = "{ \"id\" : 1 }";
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    RawJsonWriter.copy(json, output);
+
+    assertThat(output.toString("UTF-8")).isEqualTo(json);
+  }
+
+  private static String writeRaw(Object entity, PropertyFilter filter) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    RawJsonWriter.write(entity, filter, MAPPER.getFactory(), output);
+    return output.toString("UTF-8");
+  }
+
+  private static String writeSerialized(Object value, PropertyFilter filter)
+    throws IOException {
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = new FilteringGeneratorDelegate(
+      MAPPER.getFactory().createGenerator(writer),
+      filter,
+      TokenFilter.Inclusion.INCLUDE_NON_NULL,
+      true
+    );
+    MAPPER.writeValue(generator, value);
+    return writer.toString();
+  }
+
+  private static List<TestNestedObject> objects() {
+    List<TestNestedObject> objects = new ArrayList<>();
+    for (long i = 0; i < 10; i++) {
+      objects.add(
+        new TestNestedObject(
+          i,
+          "Test " + i,
+          new TestObject(i * 100, "Nested " + i),
+          new TestObject(i * 1_000, "Second " + i)
+        )
+      );
+    }
+    return objects;
+  }
+}
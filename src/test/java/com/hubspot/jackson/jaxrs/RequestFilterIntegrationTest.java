@@ -0,0 +1,39 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.IOException;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RequestFilterIntegrationTest extends BaseTest {
+
+  private static final TypeReference<List<String>> LIST_STRING_TYPE =
+    new TypeReference<List<String>>() {};
+
+  @BeforeClass
+  public static void start() throws Exception {
+    PropertyFilteringMessageBodyWriter writer = new PropertyFilteringMessageBodyWriter();
+    start(writer, new PropertyFilteringFeature(writer));
+  }
+
+  @Test
+  public void testRequestFilterAvailableToResource() throws IOException {
+    List<String> paths = getObjects(
+      LIST_STRING_TYPE,
+      "/paths",
+      "property",
+      "nested.name",
+      "!name"
+    );
+
+    assertThat(paths).containsExactly("!name", "id", "nested.name");
+  }
+
+  @Test
+  public void testRequestFilterWithoutProperties() throws IOException {
+    assertThat(getObjects(LIST_STRING_TYPE, "/paths", "property")).containsExactly("id");
+  }
+}
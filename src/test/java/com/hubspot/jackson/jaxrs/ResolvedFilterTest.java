@@ -0,0 +1,158 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestObject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ResolvedFilterTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  public void itReportsUnknownPaths() {
+    PropertyFilter filter = resolve(
+      MAPPER.writer(),
+      Account.class,
+      "id",
+      "typo",
+      "owner.email",
+      "owner.typo",
+      "secret",
+      "!attributes.anything",
+      "*.email",
+      "id.nested"
+    );
+
+    assertThat(filter.getUnknownPaths())
+      .containsExactly("id.nested", "owner.typo", "secret", "typo");
+  }
+
+  @Test
+  public void itPrunesPropertiesTheTypeDoesntHave() {
+    PropertyFilter filter = resolve(MAPPER.writer(), Account.class, "id", "typo");
+
+    assertThat(filter.includes("id")).isTrue();
+    assertThat(filter.includes("typo")).isFalse();
+  }
+
+  @Test
+  public void itResolvesElementTypes() {
+    Type type = new TypeReference<List<Account>>() {}.getType();
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("members.id", "members.typo"))
+      .resolve(TypeShape.of(MAPPER, MAPPER.getSerializationConfig(), type));
+
+    assertThat(filter.getUnknownPaths()).containsExactly("members.typo");
+  }
+
+  @Test
+  public void itHonorsTheActiveView() {
+    ObjectWriter writer = MAPPER.writerWithView(Public.class);
+
+    assertThat(resolve(writer, Account.class, "notes").getUnknownPaths())
+      .containsExactly("notes");
+    assertThat(resolve(MAPPER.writer(), Account.class, "notes").getUnknownPaths()).isEmpty();
+  }
+
+  @Test
+  public void itLeavesOpenTypesAlone() {
+    PropertyFilter filter = new PropertyFilter(Collections.singletonList("typo"));
+
+    assertThat(filter.resolve(shape(MAPPER.writer(), TestObject.class))).isSameAs(filter);
+    assertThat(filter.resolve(shape(MAPPER.writer(), Map.class))).isSameAs(filter);
+  }
+
+  @Test
+  public void itWritesTheSameAsTheUnresolvedFilter() throws IOException {
+    Account account = account();
+    for (String[] properties : Arrays.asList(
+      new String[] { "id", "owner.email", "typo" },
+      new String[] { "!owner", "!typo.id", "members.id" },
+      new String[] { "*.id", "!attributes.b" },
+      new String[] { "owner.*", "*.email", "!notes" }
+    )) {
+      PropertyFilter filter = new PropertyFilter(Arrays.asList(properties));
+      PropertyFilter resolved = filter.resolve(shape(MAPPER.writer(), Account.class));
+
+      assertThat(write(account, resolved)).isEqualTo(write(account, filter));
+    }
+  }
+
+  private static PropertyFilter resolve(ObjectWriter writer, Type type, String... properties) {
+    return new PropertyFilter(Arrays.asList(properties)).resolve(shape(writer, type));
+  }
+
+  private static TypeShape shape(ObjectWriter writer, Type type) {
+    return TypeShape.of(MAPPER, writer.getConfig(), type);
+  }
+
+  private static String write(Object value, PropertyFilter filter) throws IOException {
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = new FilteringGeneratorDelegate(
+      MAPPER.getFactory().createGenerator(writer),
+      filter,
+      TokenFilter.Inclusion.INCLUDE_NON_NULL,
+      true
+    );
+    MAPPER.writeValue(generator, value);
+    return writer.toString();
+  }
+
+  private static Account account() {
+    Account account = new Account();
+    account.id = 1;
+    account.name = "Account";
+    account.secret = "secret";
+    account.notes = "notes";
+    account.owner = new Owner(2, "owner@example.com");
+    account.members = Arrays.asList(new Owner(3, "a@example.com"), new Owner(4, null));
+    account.attributes = Map.of("a", 1, "b", Map.of("id", 5));
+    return account;
+  }
+
+  public interface Public {}
+
+  public interface Internal {}
+
+  public static final class Account {
+
+    public long id;
+    public String name;
+
+    @JsonIgnore
+    public String secret;
+
+    @JsonView(Internal.class)
+    public String notes;
+
+    public Owner owner;
+    public List<Owner> members;
+    public Map<String, Object> attributes;
+  }
+
+  public static final class Owner {
+
+    public final long id;
+    public final String email;
+
+    public Owner(long id, String email) {
+      this.id = id;
+      this.email = email;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import org.junit.Test;
+
+public class ResponseBufferPoolTest {
+
+  @Test
+  public void itWritesSmallResponsesInOneCallWithContentLength() throws IOException {
+    ResponseBufferPool pool = new ResponseBufferPool(8 * 1024, 2);
+    CountingOutputStream outputStream = new CountingOutputStream();
+    MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+    ResponseBufferPool.Buffer buffer = pool.newBuffer(outputStream);
+    byte[] data = bytes(3000);
+    for (int i = 0; i < data.length; i += 100) {
+      buffer.write(data, i, 100);
+    }
+    buffer.flush();
+    assertThat(outputStream.writes).isEqualTo(0);
+
+    buffer.finish(headers);
+
+    assertThat(outputStream.writes).isEqualTo(1);
+    assertThat(outputStream.toByteArray()).isEqualTo(data);
+    assertThat(headers.getFirst(HttpHeaders.CONTENT_LENGTH)).isEqualTo(3000);
+  }
+
+  @Test
+  public void itStreamsResponsesThatOutgrowTheBuffer() throws IOException {
+    ResponseBufferPool pool = new ResponseBufferPool(2048, 2);
+    CountingOutputStream outputStream = new CountingOutputStream();
+    MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+    ResponseBufferPool.Buffer buffer = pool.newBuffer(outputStream);
+    byte[] data = bytes(5000);
+    buffer.write(data, 0, 2000);
+    buffer.write(data[2000]);
+    buffer.write(data, 2001, 2999);
+    buffer.finish(headers);
+
+    assertThat(outputStream.toByteArray()).isEqualTo(data);
+    assertThat(headers).doesNotContainKey(HttpHeaders.CONTENT_LENGTH);
+  }
+
+  @Test
+  public void itReusesReleasedBuffers() throws IOException {
+    ResponseBufferPool pool = new ResponseBufferPool(8 * 1024, 2);
+    CountingOutputStream outputStream = new CountingOutputStream();
+
+    ResponseBufferPool.Buffer buffer = pool.newBuffer(outputStream);
+    buffer.write(bytes(100));
+    buffer.release();
+
+    // a released buffer goes back to the pool, and is as good as new for the next response
+    buffer = pool.newBuffer(outputStream);
+    buffer.write(bytes(10));
+    buffer.finish(new MultivaluedHashMap<>());
+
+    assertThat(outputStream.toByteArray()).isEqualTo(bytes(10));
+  }
+
+  private static byte[] bytes(int size) {
+    byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++) {
+      bytes[i] = (byte) i;
+    }
+    return bytes;
+  }
+
+  private static final class CountingOutputStream extends ByteArrayOutputStream {
+
+    private int writes;
+
+    @Override
+    public synchronized void write(int b) {
+      writes++;
+      super.write(b);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      writes++;
+      super.write(b, off, len);
+    }
+  }
+}
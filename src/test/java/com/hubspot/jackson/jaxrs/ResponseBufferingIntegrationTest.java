@@ -0,0 +1,97 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ResponseBufferingIntegrationTest extends BaseTest {
+
+  @BeforeClass
+  public static void start() throws Exception {
+    start(new BufferingWriter());
+  }
+
+  @Test
+  public void testSmallResponse() throws IOException {
+    HttpURLConnection connection = openConnection("/nested", "property", "id", "nested.name");
+
+    String body = readBody(connection);
+    assertThat(body).isEqualTo("{\"id\":1,\"nested\":{\"name\":\"Nested Test 100\"}}");
+    assertThat(connection.getContentLengthLong()).isEqualTo(length(body));
+  }
+
+  @Test
+  public void testResponseOutgrowingSmallestBuffers() throws IOException {
+    HttpURLConnection connection = openConnection("/array/list", "property", "nested");
+
+    StringJoiner expected = new StringJoiner(",", "[", "]");
+    for (long i = 0; i < 10; i++) {
+      StringJoiner nested = new StringJoiner(",", "{\"nested\":[", "]}");
+      for (long j = i; j < i + 10; j++) {
+        nested.add(
+          "{\"id\":" +
+          j +
+          ",\"name\":\"Test " +
+          j +
+          "\",\"nested\":{\"id\":" +
+          j * 100 +
+          ",\"name\":\"Nested Test " +
+          j * 100 +
+          "\"},\"secondNested\":{\"id\":" +
+          j * 1_000 +
+          ",\"name\":\"SecondNested Test " +
+          j * 1_000 +
+          "\"}}"
+        );
+      }
+      expected.add(nested.toString());
+    }
+
+    String body = readBody(connection);
+    // more than Jersey buffers by itself to set a Content-Length
+    assertThat(length(body)).isGreaterThan(8 * 1024);
+    assertThat(body).isEqualTo(expected.toString());
+    assertThat(connection.getContentLengthLong()).isEqualTo(length(body));
+  }
+
+  @Test
+  public void testResponseLargerThanBuffer() throws IOException {
+    HttpURLConnection connection = openConnection(
+      "/parallel/sequential",
+      "property",
+      "id",
+      "nested.name"
+    );
+
+    StringJoiner expected = new StringJoiner(",", "[", "]");
+    for (long i = 0; i < 12_345; i++) {
+      expected.add("{\"id\":" + i + ",\"nested\":{\"name\":\"Nested Test " + i * 100 + "\"}}");
+    }
+
+    String body = readBody(connection);
+    assertThat(length(body)).isGreaterThan(64 * 1024);
+    assertThat(body).isEqualTo(expected.toString());
+    // written through once it outgrew the buffer, so the length wasn't known up front
+    assertThat(connection.getContentLengthLong()).isEqualTo(-1);
+  }
+
+  private static long length(String body) {
+    return body.getBytes(StandardCharsets.UTF_8).length;
+  }
+
+  /**
+   * Buffers filtered responses to send them with a {@code Content-Length}.
+   */
+  public static class BufferingWriter extends PropertyFilteringMessageBodyWriter {
+
+    @Override
+    protected boolean responseBufferingEnabled() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import javax.ws.rs.core.HttpHeaders;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ResponseCacheIntegrationTest extends BaseTest {
+
+  private static final String NESTED_NAME =
+    "{\"id\":1,\"nested\":{\"name\":\"Nested Test 100\"}}";
+
+  @BeforeClass
+  public static void start() throws Exception {
+    start(new CachingWriter());
+  }
+
+  @Test
+  public void testETag() throws IOException {
+    HttpURLConnection first = openConnection("/nested", "property", "id", "nested.name");
+    HttpURLConnection second = openConnection("/nested", "property", "id", "nested.name");
+
+    assertThat(first.getResponseCode()).isEqualTo(200);
+    assertThat(readBody(first)).isEqualTo(NESTED_NAME);
+    assertThat(first.getHeaderField(HttpHeaders.ETAG)).isNotEmpty();
+
+    // the second response comes out of the cache, with the same tag
+    assertThat(second.getResponseCode()).isEqualTo(200);
+    assertThat(readBody(second)).isEqualTo(NESTED_NAME);
+    assertThat(second.getHeaderField(HttpHeaders.ETAG))
+      .isEqualTo(first.getHeaderField(HttpHeaders.ETAG));
+  }
+
+  @Test
+  public void testNotModified() throws IOException {
+    String tag = openConnection("/nested", "property", "id")
+      .getHeaderField(HttpHeaders.ETAG);
+
+    HttpURLConnection connection = openConnection("/nested", "property", "id");
+    connection.setRequestProperty(HttpHeaders.IF_NONE_MATCH, tag);
+
+    assertThat(connection.getResponseCode()).isEqualTo(304);
+    assertThat(connection.getHeaderField(HttpHeaders.ETAG)).isEqualTo(tag);
+    assertThat(readBody(connection)).isEmpty();
+  }
+
+  @Test
+  public void testOtherTagModified() throws IOException {
+    String tag = openConnection("/nested", "property", "name")
+      .getHeaderField(HttpHeaders.ETAG);
+
+    HttpURLConnection connection = openConnection("/nested", "property", "id");
+    connection.setRequestProperty(HttpHeaders.IF_NONE_MATCH, tag);
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(readBody(connection)).isEqualTo("{\"id\":1}");
+    assertThat(connection.getHeaderField(HttpHeaders.ETAG)).isNotEqualTo(tag);
+  }
+
+  @Test
+  public void testTagPerFilter() throws IOException {
+    HttpURLConnection id = openConnection("/nested", "property", "id");
+    HttpURLConnection name = openConnection("/nested", "property", "name");
+    HttpURLConnection nested = openConnection("/nested", "property", "id", "nested.name");
+
+    assertThat(readBody(id)).isEqualTo("{\"id\":1}");
+    assertThat(readBody(name)).isEqualTo("{\"name\":\"Test 1\"}");
+    assertThat(readBody(nested)).isEqualTo(NESTED_NAME);
+    assertThat(id.getHeaderField(HttpHeaders.ETAG))
+      .isNotEqualTo(name.getHeaderField(HttpHeaders.ETAG))
+      .isNotEqualTo(nested.getHeaderField(HttpHeaders.ETAG));
+    assertThat(name.getHeaderField(HttpHeaders.ETAG))
+      .isNotEqualTo(nested.getHeaderField(HttpHeaders.ETAG));
+  }
+
+  @Test
+  public void testUncachedEntityHasNoTag() throws IOException {
+    HttpURLConnection connection = openConnection("/nested/list", "property", "id");
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(connection.getHeaderField(HttpHeaders.ETAG)).isNull();
+  }
+
+  /**
+   * Caches the filtered responses of nested objects, keyed by their id.
+   */
+  public static class CachingWriter extends PropertyFilteringMessageBodyWriter {
+
+    @Override
+    protected Object getEntityCacheKey(Object entity) {
+      return entity instanceof TestNestedObject ? ((TestNestedObject) entity).getId() : null;
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class ResponseCacheTest {
+
+  private static final ObjectWriter WRITER = new ObjectMapper().writer();
+  private static final PropertyFilter FILTER = new PropertyFilter(Arrays.asList("id", "name"));
+
+  @Test
+  public void itCachesPerKeyFilterAndWriter() throws IOException {
+    MetricRegistry metricRegistry = new MetricRegistry();
+    ResponseCache cache = new ResponseCache(1024 * 1024, false, metricRegistry);
+
+    assertThat(cache.get(String.class, 1, FILTER, WRITER)).isNull();
+    ResponseCache.CachedResponse response = cache.put(
+      String.class,
+      1,
+      FILTER,
+      WRITER,
+      bytes("{\"id\":1}")
+    );
+
+    // equivalent filters share responses, other keys, types and writers don't
+    PropertyFilter sameFilter = new PropertyFilter(Arrays.asList("name", "id"));
+    assertThat(cache.get(String.class, 1, sameFilter, WRITER)).isSameAs(response);
+    assertThat(cache.get(String.class, 2, FILTER, WRITER)).isNull();
+    assertThat(cache.get(Integer.class, 1, FILTER, WRITER)).isNull();
+    assertThat(cache.get(String.class, 1, FILTER, WRITER.withDefaultPrettyPrinter())).isNull();
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    cache.write(response, outputStream);
+    assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+
+    assertThat(meterCount(metricRegistry, "hits")).isEqualTo(1);
+    assertThat(meterCount(metricRegistry, "misses")).isEqualTo(4);
+    assertThat(meterCount(metricRegistry, "bytesServed")).isEqualTo(8);
+  }
+
+  @Test
+  public void itTagsResponsesByContent() {
+    ResponseCache cache = new ResponseCache(1024 * 1024, false, new MetricRegistry());
+
+    String tag = entityTag(cache, 1, "{\"id\":1}");
+
+    assertThat(entityTag(cache, 2, "{\"id\":1}")).isEqualTo(tag);
+    assertThat(entityTag(cache, 3, "{\"id\":3}")).isNotEqualTo(tag);
+  }
+
+  @Test
+  public void itMatchesIfNoneMatch() {
+    ResponseCache cache = new ResponseCache(1024 * 1024, false, new MetricRegistry());
+    ResponseCache.CachedResponse response = cache.put(
+      String.class,
+      1,
+      FILTER,
+      WRITER,
+      bytes("{\"id\":1}")
+    );
+    String tag = response.getEntityTag().getValue();
+
+    assertThat(response.matches("\"" + tag + "\"")).isTrue();
+    assertThat(response.matches("W/\"" + tag + "\"")).isTrue();
+    assertThat(response.matches("\"other\", \"" + tag + "\"")).isTrue();
+    assertThat(response.matches("*")).isTrue();
+    assertThat(response.matches(tag)).isFalse();
+    assertThat(response.matches("\"other\"")).isFalse();
+    assertThat(response.matches(null)).isFalse();
+  }
+
+  @Test
+  public void itWritesDirectBuffers() throws IOException {
+    ResponseCache cache = new ResponseCache(1024 * 1024, true, new MetricRegistry());
+    byte[] content = new byte[20000];
+    Arrays.fill(content, (byte) 'a');
+    ResponseCache.CachedResponse response = cache.put(String.class, 1, FILTER, WRITER, content);
+
+    for (int i = 0; i < 2; i++) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      cache.write(cache.get(String.class, 1, FILTER, WRITER), outputStream);
+      assertThat(outputStream.toByteArray()).isEqualTo(content);
+    }
+    assertThat(response.length()).isEqualTo(20000);
+  }
+
+  @Test
+  public void itStaysWithinItsSize() {
+    ResponseCache cache = new ResponseCache(16 * 100, false, new MetricRegistry());
+
+    // too large to keep at all
+    cache.put(String.class, 0, FILTER, WRITER, new byte[101]);
+    assertThat(cache.get(String.class, 0, FILTER, WRITER)).isNull();
+
+    for (int key = 1; key <= 16; key++) {
+      cache.put(String.class, key, FILTER, WRITER, new byte[100]);
+    }
+    assertThat(cache.get(String.class, 1, FILTER, WRITER)).isNotNull();
+
+    // full, start over
+    cache.put(String.class, 17, FILTER, WRITER, new byte[100]);
+    assertThat(cache.get(String.class, 1, FILTER, WRITER)).isNull();
+    assertThat(cache.get(String.class, 17, FILTER, WRITER)).isNotNull();
+  }
+
+  @Test
+  public void itOnlyCountsResponsesItKeeps() {
+    ResponseCache cache = new ResponseCache(16 * 100, false, new MetricRegistry());
+
+    // the same response put over and over is held, and counted, once
+    ResponseCache.CachedResponse response = cache.put(
+      String.class,
+      1,
+      FILTER,
+      WRITER,
+      new byte[100]
+    );
+    for (int i = 0; i < 20; i++) {
+      assertThat(cache.put(String.class, 1, FILTER, WRITER, new byte[100])).isSameAs(response);
+    }
+
+    cache.put(String.class, 2, FILTER, WRITER, new byte[100]);
+    assertThat(cache.get(String.class, 1, FILTER, WRITER)).isSameAs(response);
+  }
+
+  private static String entityTag(ResponseCache cache, int key, String json) {
+    return cache.put(String.class, key, FILTER, WRITER, bytes(json)).getEntityTag().getValue();
+  }
+
+  private static long meterCount(MetricRegistry metricRegistry, String name) {
+    return metricRegistry
+      .meter(MetricRegistry.name(PropertyFilteringMessageBodyWriter.class, "responseCache", name))
+      .getCount();
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
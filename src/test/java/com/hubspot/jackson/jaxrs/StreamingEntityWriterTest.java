@@ -0,0 +1,190 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestIterable;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestObject;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestPage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class StreamingEntityWriterTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Test
+  public void itMatchesListSerialization() throws IOException {
+    for (String[] properties : Arrays.asList(
+      new String[] {},
+      new String[] { "id" },
+      new String[] { "nested.id", "secondNested" },
+      new String[] { "!*.name" }
+    )) {
+      PropertyFilter filter = new PropertyFilter(Arrays.asList(properties));
+      String expected = writeList(objects(10), filter);
+
+      assertThat(writeStreaming(objects(10).stream(), filter)).isEqualTo(expected);
+      assertThat(writeStreaming(objects(10).iterator(), filter)).isEqualTo(expected);
+      Iterable<TestNestedObject> iterable = () -> objects(10).iterator();
+      assertThat(writeStreaming(iterable, filter)).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void itWritesEmptySources() throws IOException {
+    PropertyFilter filter = new PropertyFilter(Collections.singletonList("id"));
+
+    assertThat(writeStreaming(Stream.empty(), filter)).isEqualTo("[]");
+  }
+
+  @Test
+  public void itClosesTheSource() throws IOException {
+    AtomicBoolean closed = new AtomicBoolean();
+    Stream<TestNestedObject> stream = objects(3).stream().onClose(() -> closed.set(true));
+
+    writeStreaming(stream, new PropertyFilter(Collections.singletonList("id")));
+
+    assertThat(closed.get()).isTrue();
+  }
+
+  @Test
+  public void itFlushesAfterTheFirstElementAndThenByThreshold() throws IOException {
+    List<Integer> flushedAt = new ArrayList<>();
+    ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        flushedAt.add(size());
+      }
+    };
+
+    StreamingEntityWriter.write(
+      objects(100).stream(),
+      MAPPER.writer(),
+      new PropertyFilter(Collections.singletonList("id")),
+      200,
+      output
+    );
+
+    // every element is {"id":N}, 8 to 10 bytes with the separator
+    assertThat(flushedAt.get(0)).isLessThan(10);
+    assertThat(flushedAt.size()).isBetween(5, 10);
+    for (int i = 1; i < flushedAt.size() - 1; i++) {
+      assertThat(flushedAt.get(i) - flushedAt.get(i - 1)).isBetween(200, 210);
+    }
+  }
+
+  @Test
+  public void itWritesOneFilteredDocumentPerLine() throws IOException {
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("id", "nested.id"));
+    String expected =
+      "{\"id\":0,\"nested\":{\"id\":0}}\n" +
+      "{\"id\":1,\"nested\":{\"id\":100}}\n";
+
+    assertThat(writeLines(objects(2), filter)).isEqualTo(expected);
+    assertThat(writeLines(objects(2).toArray(), filter)).isEqualTo(expected);
+    assertThat(writeLines(objects(2).stream(), filter)).isEqualTo(expected);
+    assertThat(writeLines(objects(1).get(0), filter))
+      .isEqualTo("{\"id\":0,\"nested\":{\"id\":0}}\n");
+    assertThat(writeLines(Collections.emptyList(), filter)).isEmpty();
+  }
+
+  @Test
+  public void itWritesOneDocumentPerLineWithAnIndentingMapper() throws IOException {
+    ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    PropertyFilter filter = new PropertyFilter(Arrays.asList("id", "nested.id"));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    StreamingEntityWriter.writeLines(objects(3), mapper, mapper.writer(), filter, 1024, output);
+
+    assertThat(output.toString("UTF-8"))
+      .isEqualTo(
+        "{\"id\":0,\"nested\":{\"id\":0}}\n" +
+        "{\"id\":1,\"nested\":{\"id\":100}}\n" +
+        "{\"id\":2,\"nested\":{\"id\":200}}\n"
+      );
+  }
+
+  @Test
+  public void itLeavesTreesAndPathsToJackson() throws IOException {
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, ObjectNode.class)).isFalse();
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, ArrayNode.class)).isFalse();
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, Path.class)).isFalse();
+
+    // an object node iterates over its values, but is still one record
+    ObjectNode node = MAPPER.createObjectNode().put("id", 1).put("name", "x");
+    PropertyFilter filter = new PropertyFilter(Collections.singletonList("id"));
+    assertThat(writeLines(node, filter)).isEqualTo("{\"id\":1}\n");
+  }
+
+  @Test
+  public void itOnlyStreamsWhatJacksonWritesAsArrays() throws IOException {
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, Stream.class)).isTrue();
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, Iterator.class)).isTrue();
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, TestIterable.class)).isTrue();
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, List.class)).isFalse();
+
+    // an iterable with properties of its own is written as an object, and is one record
+    assertThat(StreamingEntityWriter.isStreaming(MAPPER, TestPage.class)).isFalse();
+    TestPage page = new TestPage(Arrays.asList("a", "b"));
+    PropertyFilter filter = new PropertyFilter(Collections.singletonList("total"));
+    assertThat(writeLines(page, filter)).isEqualTo("{\"total\":2}\n");
+  }
+
+  private static String writeLines(Object entity, PropertyFilter filter) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    StreamingEntityWriter.writeLines(entity, MAPPER, MAPPER.writer(), filter, 1024, output);
+    return output.toString("UTF-8");
+  }
+
+  private static String writeStreaming(Object entity, PropertyFilter filter)
+    throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    StreamingEntityWriter.write(entity, MAPPER.writer(), filter, 1024, output);
+    return output.toString("UTF-8");
+  }
+
+  private static String writeList(Object value, PropertyFilter filter) throws IOException {
+    StringWriter writer = new StringWriter();
+    JsonGenerator generator = new FilteringGeneratorDelegate(
+      MAPPER.getFactory().createGenerator(writer),
+      filter,
+      TokenFilter.Inclusion.INCLUDE_NON_NULL,
+      true
+    );
+    MAPPER.writeValue(generator, value);
+    return writer.toString();
+  }
+
+  private static List<TestNestedObject> objects(int size) {
+    List<TestNestedObject> objects = new ArrayList<>();
+    for (long i = 0; i < size; i++) {
+      objects.add(
+        new TestNestedObject(
+          i,
+          "Test " + i,
+          new TestObject(i * 100, "Nested " + i),
+          new TestObject(i * 1_000, "Second " + i)
+        )
+      );
+    }
+    return objects;
+  }
+}
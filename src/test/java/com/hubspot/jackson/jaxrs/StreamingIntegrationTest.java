@@ -0,0 +1,77 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hubspot.jackson.jaxrs.util.TestResource.TestNestedObject;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+public class StreamingIntegrationTest extends BaseTest {
+
+  private static final TypeReference<List<TestNestedObject>> LIST_NESTED_TYPE =
+    new TypeReference<List<TestNestedObject>>() {};
+  private static final TypeReference<TestNestedObject> NESTED_TYPE =
+    new TypeReference<TestNestedObject>() {};
+
+  @Test
+  public void testStreamFiltered() throws IOException {
+    assertFiltered(getObjects(LIST_NESTED_TYPE, "/stream", "property", "id", "nested.name"));
+  }
+
+  @Test
+  public void testNdjsonFiltered() throws IOException {
+    assertFiltered(getLines(NESTED_TYPE, "/ndjson", "property", "id", "nested.name"));
+  }
+
+  @Test
+  public void testJsonlStreamFiltered() throws IOException {
+    assertFiltered(getLines(NESTED_TYPE, "/ndjson/stream", "property", "id", "nested.name"));
+  }
+
+  @Test
+  public void testIterableFiltered() throws IOException {
+    assertFiltered(getObjects(LIST_NESTED_TYPE, "/iterable", "property", "id", "nested.name"));
+  }
+
+  @Test
+  public void testIterableBeanIsNotStreamed() throws IOException {
+    assertThat(getBody("/iterable/page", "property"))
+      .isEqualTo("{\"content\":[\"a\",\"b\"],\"total\":2}");
+    assertThat(getBody("/iterable/page", "property", "total")).isEqualTo("{\"total\":2}");
+  }
+
+  @Test
+  public void testTreeIsNotStreamed() throws IOException {
+    JsonNode node = getObjects(new TypeReference<JsonNode>() {}, "/tree", "property", "id");
+
+    assertThat(node.toString()).isEqualTo("{\"id\":1}");
+  }
+
+  @Test
+  public void testStreamUnfiltered() throws IOException {
+    List<TestNestedObject> objects = getObjects(LIST_NESTED_TYPE, "/stream", "property");
+
+    assertThat(objects).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      assertThat(objects.get(i).getId()).isEqualTo(i);
+      assertThat(objects.get(i).getName()).isEqualTo("Test " + i);
+      assertThat(objects.get(i).getSecondNested().getId()).isEqualTo(i * 1_000);
+    }
+  }
+
+  private static void assertFiltered(List<TestNestedObject> objects) {
+    assertThat(objects).hasSize(10);
+    for (int i = 0; i < 10; i++) {
+      TestNestedObject object = objects.get(i);
+
+      assertThat(object.getId()).isEqualTo(i);
+      assertThat(object.getName()).isNull();
+      assertThat(object.getNested().getId()).isNull();
+      assertThat(object.getNested().getName()).isEqualTo("Nested Test " + i * 100);
+      assertThat(object.getSecondNested()).isNull();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.hubspot.jackson.jaxrs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TypeResolutionIntegrationTest extends BaseTest {
+
+  @BeforeClass
+  public static void start() throws Exception {
+    start(new TypeResolvingWriter());
+  }
+
+  @Test
+  public void testKnownPropertyOnFinalType() throws IOException {
+    HttpURLConnection connection = openConnection("/final", "property", "id");
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(readBody(connection)).isEqualTo("{\"id\":1}");
+  }
+
+  @Test
+  public void testMisspelledPropertyOnFinalType() throws IOException {
+    HttpURLConnection connection = openConnection("/final", "property", "id", "nmae");
+
+    assertThat(connection.getResponseCode()).isEqualTo(400);
+  }
+
+  @Test
+  public void testMisspelledPropertyOnListOfFinalType() throws IOException {
+    HttpURLConnection connection = openConnection("/final/list", "property", "nmae");
+
+    assertThat(connection.getResponseCode()).isEqualTo(400);
+  }
+
+  @Test
+  public void testAnyPropertyOfOpenNestedType() throws IOException {
+    HttpURLConnection connection = openConnection("/final", "property", "nested.nmae", "id");
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(readBody(connection)).isEqualTo("{\"id\":1,\"nested\":{}}");
+  }
+
+  @Test
+  public void testMisspelledPropertyOnNonFinalType() throws IOException {
+    HttpURLConnection connection = openConnection("/nested", "property", "id", "nmae");
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(readBody(connection)).isEqualTo("{\"id\":1}");
+  }
+
+  @Test
+  public void testMisspelledPropertyOnPolymorphicType() throws IOException {
+    HttpURLConnection connection = openConnection("/map/typed", "property", "k1", "kk1");
+
+    assertThat(connection.getResponseCode()).isEqualTo(200);
+    assertThat(readBody(connection)).isEqualTo("{\"k1\":1}");
+  }
+
+  /**
+   * Resolves filters against the entity type and rejects unknown properties.
+   */
+  public static class TypeResolvingWriter extends PropertyFilteringMessageBodyWriter {
+
+    @Override
+    protected boolean typeResolutionEnabled() {
+      return true;
+    }
+
+    @Override
+    protected boolean rejectUnknownProperties() {
+      return true;
+    }
+  }
+}
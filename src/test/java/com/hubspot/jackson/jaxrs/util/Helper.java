@@ -1,15 +1,19 @@
 package com.hubspot.jackson.jaxrs.util;
 
+import com.hubspot.jackson.jaxrs.PropertyFilteringFeature;
 import com.hubspot.jackson.jaxrs.PropertyFilteringMessageBodyWriter;
-import java.util.HashSet;
-import java.util.Set;
-import javax.ws.rs.core.Application;
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.server.NetworkConnector;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ContextHandlerCollection;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.servlet.ServletContainer;
+import org.glassfish.jersey.servlet.spi.AsyncContextDelegate;
+import org.glassfish.jersey.servlet.spi.AsyncContextDelegateProvider;
 
 /**
  * Adapted from Jackson source, credit to Tatu Saloranta
@@ -19,11 +23,26 @@ public enum Helper {
   INSTANCE;
 
   public Server startServer() throws Exception {
+    return startServer(new PropertyFilteringMessageBodyWriter());
+  }
+
+  /**
+   * Serves {@link TestResource} with {@code writer}, next to any other {@code providers} such as
+   * {@link PropertyFilteringFeature} or the raw JSON writers.
+   */
+  public Server startServer(PropertyFilteringMessageBodyWriter writer, Object... providers)
+    throws Exception {
     Server server = new Server(0);
     ContextHandlerCollection contexts = new ContextHandlerCollection();
     server.setHandler(contexts);
-    ServletHolder jaxrs = new ServletHolder(ServletContainer.class);
-    jaxrs.setInitParameter("javax.ws.rs.Application", TestApplication.class.getName());
+    ServletHolder jaxrs = new ServletHolder(
+      new ServletContainer(
+        new ResourceConfig()
+          .registerInstances(new TestResource(), writer)
+          .registerInstances(providers)
+      )
+    );
+    jaxrs.setAsyncSupported(true);
     ServletContextHandler mainHandler = new ServletContextHandler(
       contexts,
       "/",
@@ -42,20 +61,35 @@ public enum Helper {
     return ((NetworkConnector) server.getConnectors()[0]).getLocalPort();
   }
 
-  public static class TestApplication extends Application {
+  /**
+   * Lets Jersey suspend requests on Jetty's servlet container, like jersey-container-servlet
+   * would (registered in META-INF/services).
+   */
+  public static class AsyncContextProvider implements AsyncContextDelegateProvider {
 
     @Override
-    public Set<Class<?>> getClasses() {
-      Set<Class<?>> classes = new HashSet<Class<?>>();
-      classes.add(PropertyFilteringMessageBodyWriter.class);
-      return classes;
-    }
+    public AsyncContextDelegate createDelegate(
+      HttpServletRequest request,
+      HttpServletResponse response
+    ) {
+      return new AsyncContextDelegate() {
+        private volatile AsyncContext context;
 
-    @Override
-    public Set<Object> getSingletons() {
-      Set<Object> singletons = new HashSet<Object>();
-      singletons.add(new TestResource());
-      return singletons;
+        @Override
+        public void suspend() {
+          if (!request.isAsyncStarted()) {
+            context = request.startAsync(request, response);
+            context.setTimeout(0);
+          }
+        }
+
+        @Override
+        public void complete() {
+          if (context != null) {
+            context.complete();
+          }
+        }
+      };
     }
   }
 }
@@ -1,21 +1,51 @@
 package com.hubspot.jackson.jaxrs.util;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hubspot.jackson.jaxrs.PropertyFilter;
 import com.hubspot.jackson.jaxrs.PropertyFiltering;
+import com.hubspot.jackson.jaxrs.PropertyFilteringMessageBodyWriter;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 
 @Path("/test")
 @Produces(MediaType.APPLICATION_JSON)
 public class TestResource {
 
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Hand-written JSON with whitespace and escapes that a tokenizing filter wouldn't keep.
+   */
+  public static final String RAW_DOCUMENT =
+    "{ \"id\" : 1, \"na\\u006de\" : \"Test \\\"1\\\"\", " +
+    "\"nested\" : { \"id\" : 100, \"name\" : \"Nested\", \"tags\" : [ \"a\", \"b\" ] }, " +
+    "\"list\" : [ { \"id\" : 2, \"name\" : \"x\" }, { \"id\" : 3, \"name\" : \"y\" } ], " +
+    "\"secondNested\" : { \"skipped\" : [ { \"s\" : \"}]\\\"\" } ] }, \"last\" : true }";
+
   @GET
   @PropertyFiltering
   public List<TestObject> getObjectsStandard() {
@@ -69,6 +99,28 @@ public class TestResource {
     return result;
   }
 
+  @GET
+  @Path("/map/ordered")
+  @PropertyFiltering
+  public Map<String, Integer> getOrderedMap() {
+    Map<String, Integer> result = new LinkedHashMap<>();
+    for (int i = 99; i >= 0; i--) {
+      result.put("k" + i, i);
+    }
+    return result;
+  }
+
+  @GET
+  @Path("/map/typed")
+  @PropertyFiltering
+  public TypedMap getTypedMap() {
+    TypedMap result = new TypedMap();
+    for (int i = 0; i < 100; i++) {
+      result.put("k" + i, i);
+    }
+    return result;
+  }
+
   @GET
   @Path("/array/list")
   @PropertyFiltering
@@ -94,6 +146,20 @@ public class TestResource {
     return result;
   }
 
+  @GET
+  @Path("/final")
+  @PropertyFiltering
+  public TestFinalObject getFinalObject() {
+    return new TestFinalObject(1L, "Test 1", new TestObject(100L, "Nested Test 100"));
+  }
+
+  @GET
+  @Path("/final/list")
+  @PropertyFiltering
+  public List<TestFinalObject> getFinalObjects() {
+    return Arrays.asList(getFinalObject(), getFinalObject());
+  }
+
   @GET
   @Path("/prefix")
   @PropertyFiltering(prefix = "nested")
@@ -108,6 +174,113 @@ public class TestResource {
     return getNestedObject(1);
   }
 
+  @GET
+  @Path("/raw/bytes")
+  @PropertyFiltering
+  public byte[] getRawBytes() throws JsonProcessingException {
+    return MAPPER.writeValueAsBytes(getNestedObjects());
+  }
+
+  @GET
+  @Path("/raw/string")
+  @PropertyFiltering
+  public String getRawString() throws JsonProcessingException {
+    return MAPPER.writeValueAsString(getNestedObjects());
+  }
+
+  @GET
+  @Path("/raw/stream")
+  @PropertyFiltering
+  public InputStream getRawStream() throws JsonProcessingException {
+    return new ByteArrayInputStream(getRawBytes());
+  }
+
+  @GET
+  @Path("/raw/document")
+  @PropertyFiltering
+  public String getRawDocument() {
+    return RAW_DOCUMENT;
+  }
+
+  @GET
+  @Path("/raw/unannotated")
+  public String getRawStringUnannotated() throws JsonProcessingException {
+    return getRawString();
+  }
+
+  @GET
+  @Path("/stream")
+  @PropertyFiltering
+  public Stream<TestNestedObject> getNestedObjectStream() {
+    return LongStream.range(0, 10).mapToObj(TestResource::getNestedObject);
+  }
+
+  @GET
+  @Path("/iterable")
+  @PropertyFiltering
+  public TestIterable getNestedObjectIterable() {
+    return new TestIterable(getNestedObjects());
+  }
+
+  @GET
+  @Path("/iterable/page")
+  @PropertyFiltering
+  public TestPage getPage() {
+    return new TestPage(Arrays.asList("a", "b"));
+  }
+
+  @GET
+  @Path("/parallel")
+  @PropertyFiltering(parallel = true)
+  public List<TestNestedObject> getManyNestedObjectsParallel() {
+    return getManyNestedObjects();
+  }
+
+  @GET
+  @Path("/parallel/sequential")
+  @PropertyFiltering
+  public List<TestNestedObject> getManyNestedObjectsSequential() {
+    return getManyNestedObjects();
+  }
+
+  @GET
+  @Path("/tree")
+  @PropertyFiltering
+  public ObjectNode getTree() {
+    return MAPPER.createObjectNode().put("id", 1).put("name", "x");
+  }
+
+  @GET
+  @Path("/ndjson")
+  @Produces(PropertyFilteringMessageBodyWriter.APPLICATION_NDJSON)
+  @PropertyFiltering
+  public List<TestNestedObject> getNestedObjectLines() {
+    return getNestedObjects();
+  }
+
+  @GET
+  @Path("/ndjson/stream")
+  @Produces(PropertyFilteringMessageBodyWriter.APPLICATION_JSONL)
+  @PropertyFiltering
+  public Stream<TestNestedObject> getNestedObjectLineStream() {
+    return getNestedObjectStream();
+  }
+
+  @GET
+  @Path("/async/response")
+  @PropertyFiltering
+  public void getNestedObjectsAsync(@Suspended AsyncResponse response) {
+    CompletableFuture.runAsync(() -> response.resume(getNestedObjects()));
+  }
+
+  @GET
+  @Path("/paths")
+  @PropertyFiltering(always = "id")
+  public List<String> getRequestedPaths(@Context HttpServletRequest request) {
+    PropertyFilter filter = (PropertyFilter) request.getAttribute(PropertyFilter.PROPERTY_NAME);
+    return filter.getPaths();
+  }
+
   private static List<TestObject> getObjects() {
     List<TestObject> objects = new ArrayList<>();
     for (int i = 0; i < 10; i++) {
@@ -135,6 +308,18 @@ public class TestResource {
     return objects;
   }
 
+  /**
+   * More objects than the default parallel serialization threshold.
+   */
+  private static List<TestNestedObject> getManyNestedObjects() {
+    List<TestNestedObject> objects = new ArrayList<>();
+    for (long i = 0; i < 12_345; i++) {
+      objects.add(getNestedObject(i));
+    }
+
+    return objects;
+  }
+
   private static TestArrayObject getArrayObject(long i) {
     List<TestNestedObject> nested = new ArrayList<>();
     for (long j = i; j < i + 10; j++) {
@@ -157,6 +342,55 @@ public class TestResource {
 
   public interface OtherView {}
 
+  @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+  @JsonTypeName("typed")
+  public static class TypedMap extends HashMap<String, Integer> {
+
+    private static final long serialVersionUID = 1L;
+  }
+
+  /**
+   * An iterable without properties of its own, which Jackson writes as an array.
+   */
+  public static class TestIterable implements Iterable<TestNestedObject> {
+
+    private final List<TestNestedObject> elements;
+
+    public TestIterable(List<TestNestedObject> elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    public Iterator<TestNestedObject> iterator() {
+      return elements.iterator();
+    }
+  }
+
+  /**
+   * An iterable with properties, which Jackson writes as an object like any other bean.
+   */
+  public static class TestPage implements Iterable<String> {
+
+    private final List<String> content;
+
+    public TestPage(List<String> content) {
+      this.content = content;
+    }
+
+    public List<String> getContent() {
+      return content;
+    }
+
+    public int getTotal() {
+      return content.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return content.iterator();
+    }
+  }
+
   public static class TestObject {
 
     private final Long id;
@@ -203,6 +437,35 @@ public class TestResource {
     }
   }
 
+  /**
+   * Written exactly as declared, so its properties are known up front, except those of the
+   * non-final nested object.
+   */
+  public static final class TestFinalObject {
+
+    private final Long id;
+    private final String name;
+    private final TestObject nested;
+
+    public TestFinalObject(Long id, String name, TestObject nested) {
+      this.id = id;
+      this.name = name;
+      this.nested = nested;
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public TestObject getNested() {
+      return nested;
+    }
+  }
+
   public static class TestArrayObject extends TestObject {
 
     private final List<TestNestedObject> nested;